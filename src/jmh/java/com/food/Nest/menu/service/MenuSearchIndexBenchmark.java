@@ -0,0 +1,77 @@
+package com.food.Nest.menu.service;
+
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory menu search against a synthetic menu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuSearchIndexBenchmark {
+
+    private static final String[] DISHES = {"Burger", "Pizza", "Salad", "Pasta", "Curry", "Taco", "Wrap", "Soup"};
+    private static final String[] STYLES = {"Classic", "Spicy", "Vegan", "Smoked", "Crispy", "Garlic", "Cheese", "Herb"};
+    private static final String[] CATEGORIES = {"Mains", "Sides", "Starters", "Desserts", "Drinks"};
+
+    @Param({"200", "2000"})
+    private int menuSize;
+
+    private MenuSearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < menuSize; i++) {
+            String style = STYLES[i % STYLES.length];
+            String dish = DISHES[(i / STYLES.length) % DISHES.length];
+            menuItems.add(new MenuItem((long) i, style + " " + dish + " " + i,
+                    style + " " + dish.toLowerCase() + " made fresh with seasonal ingredients",
+                    new BigDecimal("9.99"), CATEGORIES[i % CATEGORIES.length], true,
+                    LocalDateTime.now(), LocalDateTime.now()));
+        }
+
+        MenuRepository menuRepository = Mockito.mock(MenuRepository.class);
+        Mockito.when(menuRepository.findByAvailableTrue()).thenReturn(menuItems);
+        searchIndex = new MenuSearchIndex(menuRepository, new ReplicaRouting());
+        searchIndex.rebuild();
+    }
+
+    @Benchmark
+    public List<MenuItem> exactTerm() {
+        return searchIndex.search("curry");
+    }
+
+    @Benchmark
+    public List<MenuItem> prefixWhileTyping() {
+        return searchIndex.search("spi");
+    }
+
+    @Benchmark
+    public List<MenuItem> typoAcrossTwoTerms() {
+        return searchIndex.search("smokd burgr");
+    }
+}
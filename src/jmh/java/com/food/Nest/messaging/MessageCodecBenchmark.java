@@ -0,0 +1,93 @@
+package com.food.Nest.messaging;
+
+import com.food.Nest.orders.model.OrderEvent;
+import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue payload encoding and decoding through MessageCodec in each wire format
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    private MessageFormat format;
+
+    private MessageCodec messageCodec;
+    private String contentType;
+    private OrderRequest orderRequest;
+    private OrderEvent orderEvent;
+    private String orderRequestBody;
+    private String orderEventBody;
+
+    @Setup
+    public void setUp() {
+        messageCodec = new MessageCodec(new JacksonConfig().objectMapper(), format);
+        contentType = format.getContentType();
+
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setMenuItemId((long) i);
+            item.setQuantity(2);
+            item.setSpecialInstructions(i == 0 ? "No onions" : null);
+            items.add(item);
+        }
+        orderRequest = new OrderRequest();
+        orderRequest.setCustomerName("Jane Doe");
+        orderRequest.setCustomerEmail("jane@example.com");
+        orderRequest.setCustomerPhone("+27 21 555 0100");
+        orderRequest.setDeliveryAddress("1 Long Street, Cape Town");
+        orderRequest.setOrderItems(items);
+        orderRequest.setIdempotencyKey(UUID.randomUUID().toString());
+
+        orderEvent = new OrderEvent(42L, OrderStatus.PREPARING, LocalDateTime.now(),
+                "jane@example.com", "Jane Doe", "ORDER_STATUS_UPDATED");
+
+        orderRequestBody = messageCodec.encode(orderRequest);
+        orderEventBody = messageCodec.encode(orderEvent);
+    }
+
+    @Benchmark
+    public String encodeOrderRequest() {
+        return messageCodec.encode(orderRequest);
+    }
+
+    @Benchmark
+    public OrderRequest decodeOrderRequest() {
+        return messageCodec.decode(orderRequestBody, contentType, OrderRequest.class);
+    }
+
+    @Benchmark
+    public String encodeOrderEvent() {
+        return messageCodec.encode(orderEvent);
+    }
+
+    @Benchmark
+    public OrderEvent decodeOrderEvent() {
+        return messageCodec.decode(orderEventBody, contentType, OrderEvent.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.food.Nest.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.orders.model.OrderEvent;
+import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round trips of the queue payloads through the application's ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMessageSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private OrderRequest orderRequest;
+    private OrderEvent orderEvent;
+    private String orderRequestJson;
+    private String orderEventJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setMenuItemId((long) i);
+            item.setQuantity(2);
+            item.setSpecialInstructions(i == 0 ? "No onions" : null);
+            items.add(item);
+        }
+        orderRequest = new OrderRequest();
+        orderRequest.setCustomerName("Jane Doe");
+        orderRequest.setCustomerEmail("jane@example.com");
+        orderRequest.setCustomerPhone("+27 21 555 0100");
+        orderRequest.setDeliveryAddress("1 Long Street, Cape Town");
+        orderRequest.setOrderItems(items);
+        orderRequest.setIdempotencyKey(UUID.randomUUID().toString());
+
+        orderEvent = new OrderEvent(42L, OrderStatus.PREPARING, LocalDateTime.now(),
+                "jane@example.com", "Jane Doe", "ORDER_STATUS_UPDATED");
+
+        orderRequestJson = objectMapper.writeValueAsString(orderRequest);
+        orderEventJson = objectMapper.writeValueAsString(orderEvent);
+    }
+
+    @Benchmark
+    public String serializeOrderRequest() throws Exception {
+        return objectMapper.writeValueAsString(orderRequest);
+    }
+
+    @Benchmark
+    public OrderRequest deserializeOrderRequest() throws Exception {
+        return objectMapper.readValue(orderRequestJson, OrderRequest.class);
+    }
+
+    @Benchmark
+    public String serializeOrderEvent() throws Exception {
+        return objectMapper.writeValueAsString(orderEvent);
+    }
+
+    @Benchmark
+    public OrderEvent deserializeOrderEvent() throws Exception {
+        return objectMapper.readValue(orderEventJson, OrderEvent.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.food.Nest.orders.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line total calculation of a single order item
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderItemBenchmark {
+
+    private OrderItem orderItem;
+
+    @Setup
+    public void setUp() {
+        orderItem = new OrderItem();
+        orderItem.setQuantity(3);
+        orderItem.setUnitPrice(new BigDecimal("12.95"));
+    }
+
+    @Benchmark
+    public BigDecimal calculateAndSetTotalPrice() {
+        orderItem.calculateAndSetTotalPrice();
+        return orderItem.getTotalPrice();
+    }
+}
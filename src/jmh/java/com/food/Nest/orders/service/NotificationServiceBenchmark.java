@@ -0,0 +1,48 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderEvent;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the customer notification text for a status update
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationServiceBenchmark {
+
+    @Param({"CONFIRMED", "OUT_FOR_DELIVERY", "CANCELLED"})
+    private OrderStatus status;
+
+    private NotificationService notificationService;
+    private OrderEvent orderEvent;
+
+    @Setup
+    public void setUp() {
+        notificationService = new NotificationService(null, null, null, null);
+        orderEvent = new OrderEvent(42L, status, LocalDateTime.now(),
+                "jane@example.com", "Jane Doe", "ORDER_STATUS_UPDATED");
+    }
+
+    @Benchmark
+    public String generateNotificationMessage() {
+        return notificationService.generateNotificationMessage(orderEvent);
+    }
+}
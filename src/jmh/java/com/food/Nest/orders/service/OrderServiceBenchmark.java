@@ -0,0 +1,110 @@
+package com.food.Nest.orders.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.menu.service.MenuCache;
+import com.food.Nest.messaging.MessageCodec;
+import com.food.Nest.messaging.MessageFormat;
+import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.OrderIdempotencyKeyRepository;
+import com.food.Nest.orders.repository.OrderRepository;
+import com.food.Nest.orders.repository.OutboxEventRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+
+/**
+ * Order pricing and assembly in createOrder, with the repositories stubbed out
+ * and the menu served from a warm cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final int MENU_SIZE = 50;
+
+    @Param({"1", "5", "20"})
+    private int itemsPerOrder;
+
+    private OrderService orderService;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() {
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < MENU_SIZE; i++) {
+            menuItems.add(new MenuItem((long) i, "Dish " + i, "Benchmark dish " + i,
+                    new BigDecimal("7.25").add(BigDecimal.valueOf(i)), "Mains", true,
+                    LocalDateTime.now(), LocalDateTime.now()));
+        }
+
+        // Stub-only mocks keep no invocation history, so they do not grow across iterations
+        MenuRepository menuRepository = Mockito.mock(MenuRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(menuRepository.findAllById(anyIterable())).thenReturn(menuItems);
+        OrderRepository orderRepository = Mockito.mock(OrderRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MenuCache menuCache = new MenuCache(menuRepository, new ReplicaRouting(), new SimpleMeterRegistry(), 1000, Duration.ofHours(1));
+        menuCache.getMenuItems(menuItems.stream().map(MenuItem::getMenuId).toList());
+
+        orderService = new OrderService(orderRepository, menuCache,
+                Mockito.mock(OutboxEventRepository.class, Mockito.withSettings().stubOnly()),
+                new MessageCodec(new ObjectMapper(), MessageFormat.JSON),
+                new OrderStatisticsTracker(orderRepository),
+                new OrderDeduplicator(Mockito.mock(OrderIdempotencyKeyRepository.class, Mockito.withSettings().stubOnly()),
+                        new ReplicaRouting(), new SimpleMeterRegistry(), 1000, Duration.ofHours(1)),
+                event -> {
+                },
+                Mockito.mock(ActiveOrdersProjection.class, Mockito.withSettings().stubOnly()),
+                new OrderReadConsistency(new ReplicaRouting(), false, Duration.ofSeconds(15)),
+                Mockito.mock(ArchivedOrderRepository.class, Mockito.withSettings().stubOnly()));
+
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < itemsPerOrder; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setMenuItemId((long) (i % MENU_SIZE));
+            item.setQuantity(1 + i % 3);
+            items.add(item);
+        }
+        request = new OrderRequest();
+        request.setCustomerName("Jane Doe");
+        request.setCustomerEmail("jane@example.com");
+        request.setCustomerPhone("+27 21 555 0100");
+        request.setDeliveryAddress("1 Long Street, Cape Town");
+        request.setOrderItems(items);
+    }
+
+    @Benchmark
+    public OrderEntity createOrder() {
+        return orderService.createOrder(request);
+    }
+}
@@ -1,13 +1,11 @@
 package com.food.Nest.menu.controller;
 
+import com.food.Nest.messaging.QueueTelemetry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
-import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -17,26 +15,31 @@ import java.util.Map;
 @RequestMapping("/api/admin")
 public class AdminController {
 
-    private final SqsClient sqsClient;
+    private final QueueTelemetry queueTelemetry;
 
     @Value("${aws.sqs.order-processing-queue}")
-    private String orderProcessingQueueUrl;
+    private String orderProcessingQueue;
 
     @Value("${aws.sqs.notification-queue}")
-    private String notificationQueueUrl;
+    private String notificationQueue;
 
-    public AdminController(SqsClient sqsClient) {
-        this.sqsClient = sqsClient;
+    public AdminController(QueueTelemetry queueTelemetry) {
+        this.queueTelemetry = queueTelemetry;
     }
 
+    /**
+     * Queue depths from the last background poll; never calls SQS itself.
+     * Counts are null until a queue has been polled successfully.
+     */
     @GetMapping("/queue-status")
     public ResponseEntity<Map<String, Object>> getQueueStatus() {
         Map<String, Object> status = new HashMap<>();
 
-        status.put("orderProcessingQueueMessages", getQueueMessageCount(orderProcessingQueueUrl));
-        status.put("notificationQueueMessages", getQueueMessageCount(notificationQueueUrl));
-        status.put("orderProcessingQueueUrl", orderProcessingQueueUrl);
-        status.put("notificationQueueUrl", notificationQueueUrl);
+        status.put("orderProcessingQueueMessages", visibleMessages(orderProcessingQueue));
+        status.put("notificationQueueMessages", visibleMessages(notificationQueue));
+        status.put("orderProcessingQueueUrl", queueTelemetry.getQueueUrl(orderProcessingQueue));
+        status.put("notificationQueueUrl", queueTelemetry.getQueueUrl(notificationQueue));
+        status.put("queues", queueTelemetry.getAllStats());
 
         return ResponseEntity.ok(status);
     }
@@ -50,17 +53,8 @@ public class AdminController {
         return ResponseEntity.ok(health);
     }
 
-    private int getQueueMessageCount(String queueUrl) {
-        try {
-            GetQueueAttributesRequest request = GetQueueAttributesRequest.builder()
-                    .queueUrl(queueUrl)
-                    .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
-                    .build();
-            var response = sqsClient.getQueueAttributes(request);
-            String count = response.attributes().get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
-            return Integer.parseInt(count);
-        } catch (Exception e) {
-            return 0;
-        }
+    private Long visibleMessages(String queueName) {
+        QueueTelemetry.QueueStats stats = queueTelemetry.getStats(queueName);
+        return stats == null || stats.sampledAt() == null ? null : stats.visible();
     }
-}
\ No newline at end of file
+}
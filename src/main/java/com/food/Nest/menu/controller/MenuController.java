@@ -2,32 +2,46 @@ package com.food.Nest.menu.controller;
 
 import com.food.Nest.menu.model.MenuItem;
 import com.food.Nest.menu.service.MenuService;
+import com.food.Nest.menu.service.MenuSnapshotRenderer;
+import com.food.Nest.menu.service.MenuSnapshotRenderer.RenderedMenu;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/menu")
 public class MenuController {
 
+    private static final Pattern GZIP_REFUSED = Pattern.compile("gzip\\s*;\\s*q\\s*=\\s*0(\\.0*)?\\s*(,|$)");
+
     @Autowired
     private final MenuService menuService;
 
+    private final MenuSnapshotRenderer menuSnapshotRenderer;
+
+    /**
+     * Served from the pre-rendered snapshot; a matching If-None-Match gets 304 without a body
+     */
     @GetMapping
-    public ResponseEntity<List<MenuItem>> getAllMenuItems() {
-        List<MenuItem> menuItems = menuService.getAllAvailableMenuItems();
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getAllMenuItems(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return rendered(menuSnapshotRenderer.getMenu(), acceptEncoding);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(@PathVariable String category) {
-        List<MenuItem> menuItems = menuService.getMenuItemsByCategory(category);
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getMenuItemsByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return rendered(menuSnapshotRenderer.getCategory(category), acceptEncoding);
     }
 
     @GetMapping("/search")
@@ -68,4 +82,26 @@ public class MenuController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    // Spring answers 304 itself when the ETag matches the request's If-None-Match
+    private static ResponseEntity<byte[]> rendered(RenderedMenu menu, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (menu.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.eTag(menu.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(menu.gzip());
+        }
+        return response.eTag(menu.etag()).body(menu.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        String encodings = acceptEncoding.toLowerCase();
+        return encodings.contains("gzip") && !GZIP_REFUSED.matcher(encodings).find();
+    }
+}
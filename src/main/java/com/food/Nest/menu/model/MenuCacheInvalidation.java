@@ -0,0 +1,16 @@
+package com.food.Nest.menu.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast over SNS so that every node drops its cached copy of a menu item
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class MenuCacheInvalidation {
+    private String sourceNodeId;
+    private Long menuItemId;
+}
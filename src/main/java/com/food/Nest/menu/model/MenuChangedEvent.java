@@ -0,0 +1,15 @@
+package com.food.Nest.menu.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published by MenuService whenever a menu item is created, updated or removed
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class MenuChangedEvent {
+    private Long menuItemId;
+}
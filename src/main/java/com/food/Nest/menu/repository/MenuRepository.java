@@ -12,6 +12,4 @@ public interface MenuRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByAvailableTrue();
 
     List<MenuItem> findByCategoryAndAvailableTrue(String category);
-
-    List<MenuItem> findByNameContainingIgnoreCaseAndAvailableTrue(String name);
 }
@@ -0,0 +1,209 @@
+package com.food.Nest.menu.service;
+
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through, in-process cache for menu items.
+ * Items are cached by id, and the available menu is kept as one snapshot with
+ * per-category views. Entries expire after the configured TTL and are dropped
+ * explicitly whenever the menu is written. Loads always read the primary, so
+ * a reload right after a write cannot cache a lagging replica's copy.
+ * Entries are immutable copies of the entities; every caller gets its own
+ * MenuItem, so changing one can never alter what the cache hands out next.
+ */
+@Slf4j
+@Component
+public class MenuCache {
+
+    private static final String SNAPSHOT_KEY = "menu";
+
+    private final MenuRepository menuRepository;
+
+    private final ReplicaRouting replicaRouting;
+
+    private final LoadingCache<Long, CachedItem> itemsById;
+
+    private final LoadingCache<String, MenuSnapshot> snapshots;
+
+    public MenuCache(MenuRepository menuRepository,
+                     ReplicaRouting replicaRouting,
+                     MeterRegistry meterRegistry,
+                     @Value("${nest.menu.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${nest.menu.cache.ttl:10m}") Duration ttl) {
+        this.menuRepository = menuRepository;
+        this.replicaRouting = replicaRouting;
+
+        this.itemsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new MenuItemLoader());
+
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(key -> MenuSnapshot.of(replicaRouting.onPrimary(menuRepository::findByAvailableTrue).stream()
+                        .map(CachedItem::of)
+                        .toList()));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, itemsById, "menu.items");
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "menu.snapshot");
+    }
+
+    /**
+     * Get all available menu items
+     */
+    public List<MenuItem> getAvailableMenuItems() {
+        return toMenuItems(getSnapshot().getAvailable());
+    }
+
+    /**
+     * Get available menu items of one category
+     */
+    public List<MenuItem> getMenuItemsByCategory(String category) {
+        return toMenuItems(getSnapshot().getByCategory().getOrDefault(category, List.of()));
+    }
+
+    /**
+     * The current snapshot of the available menu; a new instance replaces it after every change
+     */
+    MenuSnapshot getSnapshot() {
+        return snapshots.get(SNAPSHOT_KEY);
+    }
+
+    /**
+     * Get menu item by ID, or null when it does not exist
+     */
+    public MenuItem getMenuItem(Long id) {
+        CachedItem item = itemsById.get(id);
+        return item == null ? null : item.toMenuItem();
+    }
+
+    /**
+     * Get several menu items at once; ids that do not exist are absent from the result
+     */
+    public Map<Long, MenuItem> getMenuItems(Collection<Long> ids) {
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        itemsById.getAll(ids).forEach((id, item) -> menuItems.put(id, item.toMenuItem()));
+        return menuItems;
+    }
+
+    /**
+     * Drop one menu item and the menu snapshot it may be part of
+     */
+    public void invalidate(Long id) {
+        if (id != null) {
+            itemsById.invalidate(id);
+        }
+        snapshots.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        itemsById.invalidateAll();
+        snapshots.invalidateAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            MenuSnapshot snapshot = snapshots.get(SNAPSHOT_KEY);
+            Map<Long, CachedItem> items = snapshot.getAvailable().stream()
+                    .collect(Collectors.toMap(CachedItem::menuId, item -> item));
+            itemsById.putAll(items);
+            log.info("Menu cache warmed with {} items", items.size());
+        } catch (Exception e) {
+            log.warn("Failed to warm menu cache", e);
+        }
+    }
+
+    private static List<MenuItem> toMenuItems(List<CachedItem> items) {
+        List<MenuItem> menuItems = new ArrayList<>(items.size());
+        for (CachedItem item : items) {
+            menuItems.add(item.toMenuItem());
+        }
+        return menuItems;
+    }
+
+    private class MenuItemLoader implements CacheLoader<Long, CachedItem> {
+
+        @Override
+        public CachedItem load(Long id) {
+            return replicaRouting.onPrimary(() -> menuRepository.findById(id).map(CachedItem::of).orElse(null));
+        }
+
+        @Override
+        public Map<Long, CachedItem> loadAll(Set<? extends Long> ids) {
+            Map<Long, CachedItem> loaded = new HashMap<>();
+            for (MenuItem menuItem : replicaRouting.onPrimary(() -> menuRepository.findAllById(List.copyOf(ids)))) {
+                loaded.put(menuItem.getMenuId(), CachedItem.of(menuItem));
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Immutable copy of a menu item; serializes to the same JSON as the entity
+     */
+    record CachedItem(Long menuId,
+                      String name,
+                      String description,
+                      BigDecimal price,
+                      String category,
+                      Boolean available,
+                      LocalDateTime createdAt,
+                      LocalDateTime updatedAt) {
+
+        static CachedItem of(MenuItem menuItem) {
+            return new CachedItem(menuItem.getMenuId(), menuItem.getName(), menuItem.getDescription(),
+                    menuItem.getPrice(), menuItem.getCategory(), menuItem.getAvailable(),
+                    menuItem.getCreatedAt(), menuItem.getUpdatedAt());
+        }
+
+        MenuItem toMenuItem() {
+            return new MenuItem(menuId, name, description, price, category, available, createdAt, updatedAt);
+        }
+    }
+
+    @Getter
+    static class MenuSnapshot {
+        private final List<CachedItem> available;
+        private final Map<String, List<CachedItem>> byCategory;
+
+        private MenuSnapshot(List<CachedItem> available, Map<String, List<CachedItem>> byCategory) {
+            this.available = available;
+            this.byCategory = byCategory;
+        }
+
+        static MenuSnapshot of(List<CachedItem> menuItems) {
+            Map<String, List<CachedItem>> byCategory = menuItems.stream()
+                    .collect(Collectors.groupingBy(CachedItem::category,
+                            Collectors.collectingAndThen(Collectors.toList(), List::copyOf)));
+            return new MenuSnapshot(List.copyOf(menuItems), Map.copyOf(byCategory));
+        }
+    }
+}
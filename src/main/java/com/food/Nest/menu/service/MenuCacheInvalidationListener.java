@@ -0,0 +1,42 @@
+package com.food.Nest.menu.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.menu.model.MenuCacheInvalidation;
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies menu cache invalidations broadcast by other nodes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuCacheInvalidationListener {
+
+    private final MenuCache menuCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuCacheInvalidator menuCacheInvalidator;
+    private final ObjectMapper objectMapper;
+
+    @SqsListener(value = "#{@menuCacheInvalidator.queueName}")
+    public void onInvalidation(String messageJson) {
+        try {
+            MenuCacheInvalidation invalidation = objectMapper.readValue(messageJson, MenuCacheInvalidation.class);
+            if (menuCacheInvalidator.getNodeId().equals(invalidation.getSourceNodeId())) {
+                return;
+            }
+            if (invalidation.getMenuItemId() == null) {
+                menuCache.invalidateAll();
+            } else {
+                menuCache.invalidate(invalidation.getMenuItemId());
+            }
+            menuSearchIndex.refresh(invalidation.getMenuItemId());
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable menu cache invalidation, clearing menu cache", e);
+            menuCache.invalidateAll();
+            menuSearchIndex.rebuild();
+        }
+    }
+}
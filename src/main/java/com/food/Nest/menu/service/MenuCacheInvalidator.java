@@ -0,0 +1,100 @@
+package com.food.Nest.menu.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.menu.model.MenuCacheInvalidation;
+import com.food.Nest.menu.model.MenuChangedEvent;
+import com.food.Nest.messaging.NodeTopicQueue;
+import io.awspring.cloud.sns.core.SnsTemplate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Keeps the menu cache of every node consistent.
+ * Local writes invalidate the cache once their transaction commits and are then
+ * broadcast over the SNS notification topic. Each node subscribes its own
+ * short-lived queue to the topic, which MenuCacheInvalidationListener drains.
+ */
+@Slf4j
+@Component
+public class MenuCacheInvalidator implements SmartInitializingSingleton {
+
+    private static final String EVENT_TYPE = "MENU_CACHE_INVALIDATION";
+    // Invalidations older than this are moot once the cache TTL has passed; keeps orphans from piling up
+    private static final Duration MESSAGE_RETENTION = Duration.ofMinutes(10);
+
+    private final MenuCache menuCache;
+    private final SnsTemplate snsTemplate;
+    private final ObjectMapper objectMapper;
+    private final NodeTopicQueue nodeQueue;
+
+    @Value("${aws.sns.notification-topic}")
+    private String notificationTopic;
+
+    public MenuCacheInvalidator(MenuCache menuCache,
+                                SnsTemplate snsTemplate,
+                                SnsClient snsClient,
+                                SqsClient sqsClient,
+                                ObjectMapper objectMapper,
+                                @Value("${nest.menu.cache.invalidation-queue-prefix:menu-cache-invalidation-}") String queuePrefix,
+                                @Value("${nest.menu.cache.invalidation-queue-stale-after:PT10M}") Duration staleAfter) {
+        this.menuCache = menuCache;
+        this.snsTemplate = snsTemplate;
+        this.objectMapper = objectMapper;
+        this.nodeQueue = new NodeTopicQueue(snsClient, sqsClient, EVENT_TYPE, queuePrefix, MESSAGE_RETENTION, staleAfter);
+    }
+
+    public String getNodeId() {
+        return nodeQueue.getNodeId();
+    }
+
+    public String getQueueName() {
+        return nodeQueue.getQueueName();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        menuCache.invalidate(event.getMenuItemId());
+
+        try {
+            String messageJson = objectMapper.writeValueAsString(
+                    new MenuCacheInvalidation(getNodeId(), event.getMenuItemId()));
+            snsTemplate.convertAndSend(notificationTopic, messageJson,
+                    Map.of(NodeTopicQueue.EVENT_TYPE_HEADER, EVENT_TYPE));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast menu cache invalidation for item: {}", event.getMenuItemId(), e);
+        }
+    }
+
+    /**
+     * Subscribe once all singletons exist, before the listener container for this node's queue starts
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        nodeQueue.subscribe(notificationTopic);
+    }
+
+    /**
+     * Refresh this node's heartbeat and remove the queues of nodes whose heartbeat went stale
+     */
+    @Scheduled(initialDelayString = "${nest.menu.cache.invalidation-queue-heartbeat:PT1M}",
+            fixedDelayString = "${nest.menu.cache.invalidation-queue-heartbeat:PT1M}")
+    public void heartbeat() {
+        nodeQueue.heartbeat();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        nodeQueue.unsubscribe();
+    }
+}
@@ -0,0 +1,367 @@
+package com.food.Nest.menu.service;
+
+import com.food.Nest.menu.model.MenuChangedEvent;
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over the available menu items.
+ * Name, category and description are split into tokens; a sorted token map
+ * answers exact and prefix matches and a trigram index over the token
+ * vocabulary answers substring and typo-tolerant matches. Every query term
+ * has to match, and results are ranked by field weight and match quality.
+ * The index is built at startup, retried in the background until it succeeds,
+ * and never on a request thread. Rebuilds and refreshes run one at a time, so a
+ * rebuild that read the menu before a change can never be swapped in after the
+ * refresh that applied it. Items are held as immutable copies and every search
+ * returns fresh MenuItem instances, so callers cannot change what is indexed.
+ */
+@Slf4j
+@Component
+public class MenuSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CATEGORY_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final double EXACT_BOOST = 3.0;
+    private static final double PREFIX_BOOST = 2.0;
+    private static final double SUBSTRING_BOOST = 1.5;
+    private static final double FUZZY_BOOST = 1.0;
+
+    private final MenuRepository menuRepository;
+
+    // Refreshes follow writes, so they must not read a lagging replica
+    private final ReplicaRouting replicaRouting;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held from reading the database until the result is in the index
+    private final Lock updateLock = new ReentrantLock();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> tokenPostings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramPostings = new HashMap<>();
+    private volatile boolean initialized;
+
+    public MenuSearchIndex(MenuRepository menuRepository, ReplicaRouting replicaRouting) {
+        this.menuRepository = menuRepository;
+        this.replicaRouting = replicaRouting;
+    }
+
+    /**
+     * Search available menu items by name, category and description; empty until the index is first built.
+     * The returned items are copies that callers may modify.
+     */
+    public List<MenuItem> search(String query) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                return documents.values().stream()
+                        .map(IndexedItem::item)
+                        .sorted(Comparator.comparing(MenuCache.CachedItem::name))
+                        .map(MenuCache.CachedItem::toMenuItem)
+                        .toList();
+            }
+
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Double> ranked = scores;
+            return ranked.keySet().stream()
+                    .map(documents::get)
+                    .map(IndexedItem::item)
+                    .sorted(Comparator.<MenuCache.CachedItem>comparingDouble(item -> -ranked.get(item.menuId()))
+                            .thenComparing(MenuCache.CachedItem::name))
+                    .map(MenuCache.CachedItem::toMenuItem)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole index with the current available menu
+     */
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            List<MenuItem> menuItems = replicaRouting.onPrimary(menuRepository::findByAvailableTrue);
+
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                tokenPostings.clear();
+                trigramPostings.clear();
+                menuItems.forEach(this::add);
+                initialized = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Menu search index built with {} items", menuItems.size());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Re-index one menu item, dropping it when it no longer exists or is unavailable
+     */
+    public void refresh(Long menuItemId) {
+        updateLock.lock();
+        try {
+            if (menuItemId == null || !initialized) {
+                rebuild();
+                return;
+            }
+
+            MenuItem menuItem = replicaRouting.onPrimary(() -> menuRepository.findById(menuItemId).orElse(null));
+
+            lock.writeLock().lock();
+            try {
+                remove(menuItemId);
+                if (menuItem != null && Boolean.TRUE.equals(menuItem.getAvailable())) {
+                    add(menuItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to build menu search index", e);
+        }
+    }
+
+    /**
+     * Keep trying to build the index when it failed at startup
+     */
+    @Scheduled(initialDelayString = "${nest.menu.search.retry-interval:PT30S}",
+            fixedDelayString = "${nest.menu.search.retry-interval:PT30S}")
+    public void retryBuild() {
+        if (!initialized) {
+            warmUp();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        refresh(event.getMenuItemId());
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> termScores = new HashMap<>();
+        Set<String> matchedTokens = new HashSet<>();
+
+        for (Map.Entry<String, Set<Long>> entry : tokenPostings
+                .subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+            String token = entry.getKey();
+            double boost = token.equals(term) ? EXACT_BOOST : PREFIX_BOOST;
+            score(termScores, token, entry.getValue(), boost);
+            matchedTokens.add(token);
+        }
+
+        if (term.length() < 3) {
+            return termScores;
+        }
+
+        int maxDistance = term.length() <= 5 ? 1 : 2;
+        for (String token : candidateTokens(term)) {
+            if (matchedTokens.contains(token)) {
+                continue;
+            }
+            if (token.contains(term)) {
+                score(termScores, token, tokenPostings.get(token), SUBSTRING_BOOST);
+                continue;
+            }
+            int distance = boundedDistance(term, token, maxDistance);
+            if (distance <= maxDistance) {
+                double boost = FUZZY_BOOST * (1.0 - (double) distance / (term.length() + 1));
+                score(termScores, token, tokenPostings.get(token), boost);
+            }
+        }
+        return termScores;
+    }
+
+    private void score(Map<Long, Double> termScores, String token, Collection<Long> ids, double boost) {
+        for (Long id : ids) {
+            IndexedItem indexed = documents.get(id);
+            double weight = indexed.nameTokens().contains(token) ? NAME_WEIGHT
+                    : indexed.categoryTokens().contains(token) ? CATEGORY_WEIGHT
+                    : DESCRIPTION_WEIGHT;
+            termScores.merge(id, weight * boost, Math::max);
+        }
+    }
+
+    private Set<String> candidateTokens(String term) {
+        Set<String> candidates = new HashSet<>();
+        for (String trigram : trigrams(term)) {
+            Set<String> tokens = trigramPostings.get(trigram);
+            if (tokens != null) {
+                candidates.addAll(tokens);
+            }
+        }
+        return candidates;
+    }
+
+    private void add(MenuItem menuItem) {
+        IndexedItem indexed = new IndexedItem(MenuCache.CachedItem.of(menuItem),
+                Set.copyOf(tokenize(menuItem.getName())),
+                Set.copyOf(tokenize(menuItem.getCategory())),
+                Set.copyOf(tokenize(menuItem.getDescription())));
+        documents.put(menuItem.getMenuId(), indexed);
+
+        for (String token : indexed.allTokens()) {
+            Set<Long> ids = tokenPostings.get(token);
+            if (ids == null) {
+                ids = new HashSet<>();
+                tokenPostings.put(token, ids);
+                for (String trigram : trigrams(token)) {
+                    trigramPostings.computeIfAbsent(trigram, key -> new HashSet<>()).add(token);
+                }
+            }
+            ids.add(menuItem.getMenuId());
+        }
+    }
+
+    private void remove(Long menuItemId) {
+        IndexedItem indexed = documents.remove(menuItemId);
+        if (indexed == null) {
+            return;
+        }
+
+        for (String token : indexed.allTokens()) {
+            Set<Long> ids = tokenPostings.get(token);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(menuItemId);
+            if (ids.isEmpty()) {
+                tokenPostings.remove(token);
+                for (String trigram : trigrams(token)) {
+                    Set<String> tokens = trigramPostings.get(trigram);
+                    if (tokens != null) {
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) {
+                            trigramPostings.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> trigrams(String token) {
+        String padded = "^" + token + "$";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Levenshtein distance that gives up as soon as it exceeds the given bound
+     */
+    static int boundedDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private record IndexedItem(MenuCache.CachedItem item,
+                               Set<String> nameTokens,
+                               Set<String> categoryTokens,
+                               Set<String> descriptionTokens) {
+
+        Set<String> allTokens() {
+            Set<String> tokens = new HashSet<>(nameTokens);
+            tokens.addAll(categoryTokens);
+            tokens.addAll(descriptionTokens);
+            return tokens;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.food.Nest.menu.service;
 
 
+import com.food.Nest.menu.model.MenuChangedEvent;
 import com.food.Nest.menu.model.MenuItem;
 import com.food.Nest.menu.repository.MenuRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,39 +19,54 @@ public class MenuService {
     @Autowired
     private MenuRepository menuItemRepository;
 
+    @Autowired
+    private MenuCache menuCache;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Get all available menu items
      */
+    @Transactional(readOnly = true)
     public List<MenuItem> getAllAvailableMenuItems() {
-        return menuItemRepository.findByAvailableTrue();
+        return menuCache.getAvailableMenuItems();
     }
 
     /**
      * Get menu items by category
      */
+    @Transactional(readOnly = true)
     public List<MenuItem> getMenuItemsByCategory(String category) {
-        return menuItemRepository.findByCategoryAndAvailableTrue(category);
+        return menuCache.getMenuItemsByCategory(category);
     }
 
     /**
-     * Search menu items by name
+     * Search menu items by name, category and description
      */
+    @Transactional(readOnly = true)
     public List<MenuItem> searchMenuItems(String searchTerm) {
-        return menuItemRepository.findByNameContainingIgnoreCaseAndAvailableTrue(searchTerm);
+        return menuSearchIndex.search(searchTerm);
     }
 
     /**
      * Get menu item by ID
      */
+    @Transactional(readOnly = true)
     public Optional<MenuItem> getMenuItem(Long id) {
-        return menuItemRepository.findById(id);
+        return Optional.ofNullable(menuCache.getMenuItem(id));
     }
 
     /**
      * Create new menu item
      */
     public MenuItem createMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        MenuItem created = menuItemRepository.save(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(created.getMenuId()));
+        return created;
     }
 
     /**
@@ -65,7 +82,9 @@ public class MenuService {
         existing.setCategory(updatedMenuItem.getCategory());
         existing.setAvailable(updatedMenuItem.getAvailable());
 
-        return menuItemRepository.save(existing);
+        MenuItem updated = menuItemRepository.save(existing);
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
+        return updated;
     }
 
     /**
@@ -77,5 +96,6 @@ public class MenuService {
 
         existing.setAvailable(false);
         menuItemRepository.save(existing);
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
     }
 }
\ No newline at end of file
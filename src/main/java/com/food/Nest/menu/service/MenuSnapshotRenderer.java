@@ -0,0 +1,137 @@
+package com.food.Nest.menu.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The menu listings as ready-to-send JSON.
+ * Whenever MenuCache replaces its snapshot, the whole menu and every category
+ * are serialized once, optionally gzipped, and tagged with a strong ETag
+ * derived from the JSON, so every node hands out the same tag for the same
+ * menu. Requests in between reuse the bytes without touching the database.
+ */
+@Slf4j
+@Component
+public class MenuSnapshotRenderer {
+
+    private final MenuCache menuCache;
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+
+    private volatile Rendered rendered;
+
+    public MenuSnapshotRenderer(MenuCache menuCache,
+                                ObjectMapper objectMapper,
+                                @Value("${nest.menu.snapshot.gzip-enabled:true}") boolean gzipEnabled) {
+        this.menuCache = menuCache;
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    /**
+     * All available menu items
+     */
+    public RenderedMenu getMenu() {
+        return current().menu();
+    }
+
+    /**
+     * Available menu items of one category; an unknown category renders as an empty list
+     */
+    public RenderedMenu getCategory(String category) {
+        Rendered current = current();
+        return current.byCategory().getOrDefault(category, current.empty());
+    }
+
+    private Rendered current() {
+        MenuCache.MenuSnapshot snapshot = menuCache.getSnapshot();
+        Rendered current = rendered;
+        if (current != null && current.source() == snapshot) {
+            return current;
+        }
+        synchronized (this) {
+            current = rendered;
+            if (current == null || current.source() != snapshot) {
+                current = render(snapshot);
+                rendered = current;
+            }
+            return current;
+        }
+    }
+
+    private Rendered render(MenuCache.MenuSnapshot snapshot) {
+        Map<String, RenderedMenu> byCategory = snapshot.getByCategory().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> render(entry.getValue())));
+        Rendered result = new Rendered(snapshot, render(snapshot.getAvailable()), byCategory, render(List.of()));
+        log.debug("Rendered menu snapshot with {} items in {} categories",
+                snapshot.getAvailable().size(), byCategory.size());
+        return result;
+    }
+
+    private RenderedMenu render(List<MenuCache.CachedItem> menuItems) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(menuItems);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to render menu", e);
+        }
+        return new RenderedMenu(json, gzipEnabled ? gzip(json) : null, etag(json));
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Rendered(MenuCache.MenuSnapshot source,
+                            RenderedMenu menu,
+                            Map<String, RenderedMenu> byCategory,
+                            RenderedMenu empty) {
+    }
+
+    /**
+     * One listing as JSON bytes, its gzipped form when enabled, and the tag of its content.
+     * The arrays are shared between requests and must not be modified.
+     */
+    public record RenderedMenu(byte[] json, byte[] gzip, String tag) {
+
+        public String etag() {
+            return "\"" + tag + "\"";
+        }
+
+        /**
+         * The gzipped form is a different representation, so it gets its own strong ETag
+         */
+        public String gzipEtag() {
+            return "\"" + tag + "-gzip\"";
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.food.Nest.messaging;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the blocking part of SQS listener methods.
+ * The listener containers only accept their own platform threads, so listeners
+ * hand their JDBC work to this executor and return the future; the container
+ * thread is released at once and the message is acknowledged when the future
+ * completes. With virtual threads enabled each message gets its own virtual
+ * thread, otherwise the work runs inline on the container thread as before.
+ */
+@Slf4j
+@Component
+public class ListenerWorkExecutor {
+
+    private final ExecutorService executor;
+
+    public ListenerWorkExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sqs-listener-", 0).factory())
+                : null;
+    }
+
+    public CompletableFuture<Void> run(Runnable work) {
+        if (executor == null) {
+            try {
+                work.run();
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.runAsync(work, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Listener work did not finish within 30 seconds, interrupting");
+            executor.shutdownNow();
+        }
+    }
+}
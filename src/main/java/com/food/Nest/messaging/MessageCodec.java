@@ -0,0 +1,101 @@
+package com.food.Nest.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Encodes queue payloads in the configured format and decodes messages in whichever
+ * format they are tagged with, so producers and consumers can be upgraded separately.
+ * Readers and writers are built once per payload type and reused.
+ */
+@Component
+public class MessageCodec {
+
+    /**
+     * Message attribute naming the payload format; messages without it are JSON
+     */
+    public static final String CONTENT_TYPE_ATTRIBUTE = "payloadContentType";
+
+    @Getter
+    private final MessageFormat format;
+
+    private final Map<MessageFormat, ObjectMapper> mappers = new EnumMap<>(MessageFormat.class);
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<MessageFormat, ConcurrentMap<Class<?>, ObjectReader>> readers = new EnumMap<>(MessageFormat.class);
+    private final Map<String, MessageAttributeValue> messageAttributes;
+
+    public MessageCodec(ObjectMapper objectMapper,
+                        @Value("${nest.messaging.format:json}") MessageFormat format) {
+        this.format = format;
+        for (MessageFormat messageFormat : MessageFormat.values()) {
+            mappers.put(messageFormat, messageFormat == MessageFormat.JSON
+                    ? objectMapper
+                    : objectMapper.copyWith(messageFormat.getFactory().get()));
+            readers.put(messageFormat, new ConcurrentHashMap<>());
+        }
+        this.messageAttributes = messageAttributes(format.getContentType());
+    }
+
+    /**
+     * Encode a payload as a message body in the configured format
+     */
+    public String encode(Object payload) {
+        ObjectWriter writer = writers.computeIfAbsent(payload.getClass(),
+                type -> mappers.get(format).writerFor(type));
+        try {
+            if (format.isBinary()) {
+                return Base64.getEncoder().encodeToString(writer.writeValueAsBytes(payload));
+            }
+            return writer.writeValueAsString(payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to encode " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Decode a message body using the content type it was tagged with
+     */
+    public <T> T decode(String body, String contentType, Class<T> type) {
+        MessageFormat messageFormat = MessageFormat.fromContentType(contentType);
+        ObjectReader reader = readers.get(messageFormat).computeIfAbsent(type,
+                key -> mappers.get(messageFormat).readerFor(key));
+        try {
+            if (messageFormat.isBinary()) {
+                return reader.readValue(Base64.getDecoder().decode(body.getBytes(StandardCharsets.US_ASCII)));
+            }
+            return reader.readValue(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to decode " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Message attributes to send along with every body this codec encodes
+     */
+    public Map<String, MessageAttributeValue> messageAttributes() {
+        return messageAttributes;
+    }
+
+    /**
+     * Message attributes tagging a body that was encoded with the given content type
+     */
+    public static Map<String, MessageAttributeValue> messageAttributes(String contentType) {
+        return Map.of(CONTENT_TYPE_ATTRIBUTE, MessageAttributeValue.builder()
+                .dataType("String")
+                .stringValue(contentType)
+                .build());
+    }
+}
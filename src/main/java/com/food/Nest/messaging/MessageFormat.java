@@ -0,0 +1,44 @@
+package com.food.Nest.messaging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * Wire formats a queue payload can be encoded in, identified by the content type
+ * carried in the message attributes. Binary formats are base64 encoded because
+ * SQS message bodies must be text.
+ */
+@Getter
+public enum MessageFormat {
+
+    JSON("application/json", false, JsonFactory::new),
+    SMILE("application/x-jackson-smile", true, SmileFactory::new);
+
+    private final String contentType;
+    private final boolean binary;
+    private final Supplier<JsonFactory> factory;
+
+    MessageFormat(String contentType, boolean binary, Supplier<JsonFactory> factory) {
+        this.contentType = contentType;
+        this.binary = binary;
+        this.factory = factory;
+    }
+
+    /**
+     * Resolve the format of a received message; messages without a content type are JSON
+     */
+    public static MessageFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        for (MessageFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported message content type: " + contentType);
+    }
+}
@@ -0,0 +1,222 @@
+package com.food.Nest.messaging;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.CreateTopicRequest;
+import software.amazon.awssdk.services.sns.model.ListSubscriptionsByTopicRequest;
+import software.amazon.awssdk.services.sns.model.SubscribeRequest;
+import software.amazon.awssdk.services.sns.model.Subscription;
+import software.amazon.awssdk.services.sns.model.UnsubscribeRequest;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteQueueRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.ListQueueTagsRequest;
+import software.amazon.awssdk.services.sqs.model.ListQueuesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.SetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.TagQueueRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A short-lived queue of this node's own, subscribed to an SNS topic for one event type,
+ * so every node receives its own copy of each broadcast. The queue carries a heartbeat
+ * tag; queues whose heartbeat has gone stale, left behind by nodes that died without
+ * unsubscribing, are removed by the surviving nodes.
+ * Subscribe before the listener containers start: a container that starts first creates
+ * the queue itself, with default attributes and no heartbeat.
+ */
+@Slf4j
+public class NodeTopicQueue {
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    private static final String HEARTBEAT_TAG = "heartbeat";
+
+    private final SnsClient snsClient;
+    private final SqsClient sqsClient;
+    private final String eventType;
+    private final String queuePrefix;
+    private final Duration retention;
+    private final Duration staleAfter;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Getter
+    private final String queueName;
+
+    private volatile String topicArn;
+
+    private volatile String queueUrl;
+
+    private volatile String topicName;
+
+    private volatile String subscriptionArn;
+
+    /**
+     * @param retention how long undelivered broadcasts are worth keeping, which also bounds
+     *                  what piles up in the queue of a node that died
+     */
+    public NodeTopicQueue(SnsClient snsClient, SqsClient sqsClient, String eventType,
+                          String queuePrefix, Duration retention, Duration staleAfter) {
+        this.snsClient = snsClient;
+        this.sqsClient = sqsClient;
+        this.eventType = eventType;
+        this.queuePrefix = queuePrefix;
+        this.retention = retention;
+        this.staleAfter = staleAfter;
+        this.queueName = queuePrefix + nodeId;
+    }
+
+    /**
+     * Create this node's queue and subscribe it to the topic, then remove stale queues of other nodes
+     */
+    public void subscribe(String topicName) {
+        this.topicName = topicName;
+        try {
+            topicArn = snsClient.createTopic(CreateTopicRequest.builder()
+                    .name(topicName)
+                    .build()).topicArn();
+            // Attributes and tags are set separately: CreateQueue with attributes fails
+            // if the queue already exists with different ones
+            String url = sqsClient.createQueue(CreateQueueRequest.builder()
+                    .queueName(queueName)
+                    .build()).queueUrl();
+            sqsClient.tagQueue(TagQueueRequest.builder()
+                    .queueUrl(url)
+                    .tags(Map.of(HEARTBEAT_TAG, Instant.now().toString()))
+                    .build());
+            queueUrl = url;
+            String queueArn = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                    .queueUrl(url)
+                    .attributeNames(QueueAttributeName.QUEUE_ARN)
+                    .build()).attributes().get(QueueAttributeName.QUEUE_ARN);
+
+            sqsClient.setQueueAttributes(SetQueueAttributesRequest.builder()
+                    .queueUrl(url)
+                    .attributes(Map.of(
+                            QueueAttributeName.MESSAGE_RETENTION_PERIOD, Long.toString(retention.toSeconds()),
+                            QueueAttributeName.POLICY, topicPolicy(queueArn, topicArn)))
+                    .build());
+
+            subscriptionArn = snsClient.subscribe(SubscribeRequest.builder()
+                    .topicArn(topicArn)
+                    .protocol("sqs")
+                    .endpoint(queueArn)
+                    .attributes(Map.of(
+                            "RawMessageDelivery", "true",
+                            "FilterPolicy", "{\"" + EVENT_TYPE_HEADER + "\":[\"" + eventType + "\"]}"))
+                    .returnSubscriptionArn(true)
+                    .build()).subscriptionArn();
+            log.info("Subscribed node queue {} to topic {}", queueName, topicName);
+        } catch (Exception e) {
+            log.warn("Failed to subscribe node queue: {}", queueName, e);
+        }
+        reapStaleQueues();
+    }
+
+    /**
+     * Whether this node's queue is subscribed and receiving broadcasts
+     */
+    public boolean isSubscribed() {
+        return subscriptionArn != null;
+    }
+
+    /**
+     * Refresh this node's heartbeat and remove the queues of nodes whose heartbeat went stale.
+     * Retries the subscription if it failed earlier.
+     */
+    public void heartbeat() {
+        if (!isSubscribed() && topicName != null) {
+            subscribe(topicName);
+            return;
+        }
+        if (queueUrl == null) {
+            return;
+        }
+        try {
+            sqsClient.tagQueue(TagQueueRequest.builder()
+                    .queueUrl(queueUrl)
+                    .tags(Map.of(HEARTBEAT_TAG, Instant.now().toString()))
+                    .build());
+        } catch (Exception e) {
+            log.warn("Failed to refresh heartbeat of node queue: {}", queueName, e);
+        }
+        reapStaleQueues();
+    }
+
+    public void unsubscribe() {
+        try {
+            if (subscriptionArn != null) {
+                snsClient.unsubscribe(UnsubscribeRequest.builder().subscriptionArn(subscriptionArn).build());
+            }
+            String queueUrl = this.queueUrl != null ? this.queueUrl
+                    : sqsClient.getQueueUrl(builder -> builder.queueName(queueName)).queueUrl();
+            sqsClient.deleteQueue(DeleteQueueRequest.builder().queueUrl(queueUrl).build());
+        } catch (Exception e) {
+            log.warn("Failed to remove node queue: {}", queueName, e);
+        }
+    }
+
+    private void reapStaleQueues() {
+        if (topicArn == null) {
+            return;
+        }
+        try {
+            Instant staleBefore = Instant.now().minus(staleAfter);
+            for (String url : sqsClient.listQueues(ListQueuesRequest.builder().queueNamePrefix(queuePrefix).build()).queueUrls()) {
+                if (url.equals(queueUrl) || !isStale(url, staleBefore)) {
+                    continue;
+                }
+                removeQueue(url);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to look for stale node queues with prefix: {}", queuePrefix, e);
+        }
+    }
+
+    private boolean isStale(String url, Instant staleBefore) {
+        String heartbeat = sqsClient.listQueueTags(ListQueueTagsRequest.builder().queueUrl(url).build())
+                .tags().get(HEARTBEAT_TAG);
+        try {
+            return heartbeat == null || Instant.parse(heartbeat).isBefore(staleBefore);
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    private void removeQueue(String url) {
+        try {
+            String queueArn = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                    .queueUrl(url)
+                    .attributeNames(QueueAttributeName.QUEUE_ARN)
+                    .build()).attributes().get(QueueAttributeName.QUEUE_ARN);
+            for (Subscription subscription : snsClient.listSubscriptionsByTopicPaginator(
+                    ListSubscriptionsByTopicRequest.builder().topicArn(topicArn).build()).subscriptions()) {
+                if (subscription.endpoint().equals(queueArn)) {
+                    snsClient.unsubscribe(UnsubscribeRequest.builder()
+                            .subscriptionArn(subscription.subscriptionArn())
+                            .build());
+                }
+            }
+            sqsClient.deleteQueue(DeleteQueueRequest.builder().queueUrl(url).build());
+            log.info("Removed stale node queue {}", url);
+        } catch (Exception e) {
+            log.warn("Failed to remove stale node queue: {}", url, e);
+        }
+    }
+
+    private static String topicPolicy(String queueArn, String topicArn) {
+        return "{\"Version\":\"2012-10-17\",\"Statement\":[{\"Effect\":\"Allow\","
+                + "\"Principal\":{\"Service\":\"sns.amazonaws.com\"},\"Action\":\"sqs:SendMessage\","
+                + "\"Resource\":\"" + queueArn + "\","
+                + "\"Condition\":{\"ArnEquals\":{\"aws:SourceArn\":\"" + topicArn + "\"}}}]}";
+    }
+}
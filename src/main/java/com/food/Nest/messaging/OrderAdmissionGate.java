@@ -0,0 +1,190 @@
+package com.food.Nest.messaging;
+
+import com.food.Nest.orders.service.OrderDeduplicator;
+import com.food.Nest.orders.service.SqsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a new order may be queued, based on how long it would wait.
+ * The backlog of the order queue and the rate at which consumers drain it are
+ * sampled in the background; requests only read the last projection. Once the
+ * projected wait passes the limit a growing share of new orders is turned away,
+ * all of them at twice the limit, so accepted orders keep a bounded latency.
+ * Consumption is measured on this node only, while the queue has a backlog so
+ * the rate reflects what consumers can drain rather than what arrives, and is
+ * scaled by the number of nodes consuming the queue. A client retrying an order
+ * that was already admitted is never turned away.
+ */
+@Slf4j
+@Component
+public class OrderAdmissionGate {
+
+    private static final String ORDER_QUEUE = "food-order-queue";
+    // Weight of the newest rate sample; smooths over bursty batch consumption
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final SqsService sqsService;
+    private final OrderDeduplicator orderDeduplicator;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final long minBacklog;
+    private final Duration maxRetryAfter;
+    private final Duration sampleInterval;
+    private final int consumerNodes;
+    private final Counter admitted;
+    private final Counter rejected;
+    // Idempotency keys admitted here, so a retry of an order still in the queue gets through
+    private final Cache<String, Boolean> admittedKeys;
+
+    private volatile String queueUrl;
+    private volatile long backlog;
+    private volatile double processingRate;
+    private volatile double projectedWaitSeconds;
+    private volatile long sampledAtNanos;
+    private long lastBacklog;
+    private double lastConsumed = -1;
+    private long lastConsumedAtNanos;
+    private long rateSamples;
+
+    public OrderAdmissionGate(SqsService sqsService,
+                              OrderDeduplicator orderDeduplicator,
+                              MeterRegistry meterRegistry,
+                              @Value("${nest.orders.admission.enabled:true}") boolean enabled,
+                              @Value("${nest.orders.admission.max-wait:PT30S}") Duration maxWait,
+                              @Value("${nest.orders.admission.min-backlog:100}") long minBacklog,
+                              @Value("${nest.orders.admission.max-retry-after:PT60S}") Duration maxRetryAfter,
+                              @Value("${nest.orders.admission.sample-interval:PT5S}") Duration sampleInterval,
+                              @Value("${nest.orders.admission.consumer-nodes:1}") int consumerNodes,
+                              @Value("${nest.orders.admission.admitted-key-retention:PT10M}") Duration admittedKeyRetention) {
+        this.sqsService = sqsService;
+        this.orderDeduplicator = orderDeduplicator;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.minBacklog = minBacklog;
+        this.maxRetryAfter = maxRetryAfter;
+        this.sampleInterval = sampleInterval;
+        this.consumerNodes = Math.max(1, consumerNodes);
+        this.admitted = meterRegistry.counter("orders.admission", "decision", "admitted");
+        this.rejected = meterRegistry.counter("orders.admission", "decision", "rejected");
+        this.admittedKeys = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(admittedKeyRetention)
+                .build();
+        Gauge.builder("orders.admission.backlog", this, gate -> gate.backlog)
+                .description("Messages waiting in the order queue at the last sample")
+                .register(meterRegistry);
+        Gauge.builder("orders.admission.processing.rate", this, gate -> gate.processingRate)
+                .description("Orders consumed per second, smoothed")
+                .register(meterRegistry);
+        Gauge.builder("orders.admission.projected.wait", this, gate -> gate.projectedWaitSeconds)
+                .description("Time a newly queued order is expected to wait for a consumer")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Empty when the order may be queued now, otherwise how long the client should wait before retrying.
+     * The idempotency key is the one the client sent, or null; a key that was admitted before, or
+     * whose order already exists, is let through whatever the backlog.
+     */
+    public Optional<Duration> retryAfter(String idempotencyKey) {
+        double waitSeconds = projectedWaitSeconds;
+        double limitSeconds = maxWait.toMillis() / 1000.0;
+        // Fail open when sampling stopped, the projection is then no longer meaningful
+        boolean stale = System.nanoTime() - sampledAtNanos > sampleInterval.multipliedBy(3).toNanos();
+        if (!enabled || stale || waitSeconds <= limitSeconds
+                || ThreadLocalRandom.current().nextDouble() >= (waitSeconds - limitSeconds) / limitSeconds
+                || isRetryOfAdmitted(idempotencyKey)) {
+            admitted.increment();
+            if (idempotencyKey != null) {
+                admittedKeys.put(idempotencyKey, Boolean.TRUE);
+            }
+            return Optional.empty();
+        }
+
+        rejected.increment();
+        long retryAfterSeconds = (long) Math.ceil(Math.min(waitSeconds - limitSeconds, maxRetryAfter.toSeconds()));
+        return Optional.of(Duration.ofSeconds(Math.max(1, retryAfterSeconds)));
+    }
+
+    @Scheduled(fixedDelayString = "${nest.orders.admission.sample-interval:PT5S}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (queueUrl == null) {
+                queueUrl = sqsService.getQueueUrl(ORDER_QUEUE);
+            }
+            record(sqsService.getQueueMessageCount(queueUrl), consumedOrders(), System.nanoTime());
+        } catch (Exception e) {
+            log.warn("Failed to sample order queue backlog, admitting every order until it recovers", e);
+        }
+    }
+
+    /**
+     * Fold one sample of the backlog and of the consumers' running total into the projection
+     */
+    synchronized void record(long currentBacklog, double consumed, long nowNanos) {
+        // With an empty queue at either end of the interval consumers were idle part of the time,
+        // and what they consumed says how fast orders arrived, not how fast they can be drained
+        if (lastConsumed >= 0 && nowNanos > lastConsumedAtNanos && lastBacklog > 0 && currentBacklog > 0) {
+            double rate = consumerNodes * Math.max(0, consumed - lastConsumed)
+                    / ((nowNanos - lastConsumedAtNanos) / 1e9);
+            processingRate = rateSamples++ == 0 ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * processingRate;
+        }
+        lastConsumed = consumed;
+        lastConsumedAtNanos = nowNanos;
+        lastBacklog = currentBacklog;
+        backlog = currentBacklog;
+
+        if (currentBacklog <= minBacklog || rateSamples == 0) {
+            projectedWaitSeconds = 0;
+        } else if (processingRate > 0) {
+            projectedWaitSeconds = currentBacklog / processingRate;
+        } else {
+            // A large backlog nobody drains; keep turning orders away until consumers catch up
+            projectedWaitSeconds = 2 * maxWait.toSeconds() + maxRetryAfter.toSeconds();
+        }
+        sampledAtNanos = nowNanos;
+    }
+
+    private boolean isRetryOfAdmitted(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return false;
+        }
+        if (admittedKeys.getIfPresent(idempotencyKey) != null) {
+            return true;
+        }
+        try {
+            return orderDeduplicator.isDuplicate(idempotencyKey);
+        } catch (Exception e) {
+            log.warn("Failed to look up idempotency key, treating the order as new", e);
+            return false;
+        }
+    }
+
+    /**
+     * Orders that left the queue so far, counted by both consumer variants
+     */
+    private double consumedOrders() {
+        return meterRegistry.find("orders.consumed").tag("outcome", "success").counters().stream()
+                .mapToDouble(Counter::count).sum()
+                + meterRegistry.find("orders.consumed").tag("outcome", "duplicate").counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,151 @@
+package com.food.Nest.messaging;
+
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.service.OrderDeduplicator;
+import com.food.Nest.orders.service.OrderPipelineMetrics;
+import com.food.Nest.orders.service.OrderService;
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch variant of OrderMessageConsumer.
+ * Receives up to the configured number of order messages per poll and persists
+ * all valid orders in one transaction. Messages are acknowledged one by one, so
+ * an order that cannot be processed is redelivered without failing the batch.
+ * Messages whose idempotency key was already used are acknowledged and dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "nest.orders.consumer.batch-enabled", havingValue = "true")
+public class OrderBatchMessageConsumer {
+
+    private static final String ORDER_QUEUE = "food-order-queue";
+    private final OrderService orderService;
+    private final OrderDeduplicator orderDeduplicator;
+    private final MessageCodec messageCodec;
+    private final MeterRegistry meterRegistry;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final ListenerWorkExecutor listenerWorkExecutor;
+
+    @SqsListener(value = ORDER_QUEUE,
+            maxMessagesPerPoll = "${nest.orders.consumer.batch-size:10}",
+            maxConcurrentMessages = "${nest.orders.consumer.max-concurrent-messages:10}",
+            pollTimeoutSeconds = "${nest.orders.consumer.poll-timeout-seconds:10}",
+            acknowledgementMode = "MANUAL")
+    public CompletableFuture<Void> consumeOrderMessages(List<Message<String>> messages,
+                                                        BatchAcknowledgement<String> acknowledgement) {
+        return listenerWorkExecutor.run(() -> consume(messages, acknowledgement));
+    }
+
+    private void consume(List<Message<String>> messages, BatchAcknowledgement<String> acknowledgement) {
+        log.info("Received batch of {} order messages", messages.size());
+
+        Map<Message<String>, OrderRequest> requests = new LinkedHashMap<>();
+        Map<Message<String>, OrderEntity> orders = new LinkedHashMap<>();
+        List<Message<String>> duplicates = new ArrayList<>();
+        Set<String> batchKeys = new HashSet<>();
+        for (Message<String> message : messages) {
+            pipelineMetrics.recordQueueWait(ORDER_QUEUE,
+                    message.getHeaders().get(SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP));
+            try {
+                OrderRequest orderRequest = messageCodec.decode(message.getPayload(),
+                        message.getHeaders().get(MessageCodec.CONTENT_TYPE_ATTRIBUTE, String.class), OrderRequest.class);
+                String idempotencyKey = orderRequest.getIdempotencyKey();
+                if ((idempotencyKey != null && !batchKeys.add(idempotencyKey))
+                        || orderDeduplicator.isDuplicate(idempotencyKey)) {
+                    duplicates.add(message);
+                    continue;
+                }
+                orders.put(message, orderService.buildOrder(orderRequest));
+                requests.put(message, orderRequest);
+            } catch (Exception e) {
+                log.error("Failed to process order message: {}", message.getHeaders().getId(), e);
+                recordFailure();
+            }
+        }
+
+        if (!duplicates.isEmpty()) {
+            log.info("Dropping {} duplicate order messages", duplicates.size());
+            acknowledgement.acknowledge(duplicates);
+            recordDuplicates(duplicates.size());
+        }
+
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            orderService.createOrders(new ArrayList<>(orders.values()));
+            acknowledgement.acknowledge(orders.keySet());
+            recordSuccess(orders.size());
+            pipelineMetrics.recordCreate(startNanos, "batch", "success");
+        } catch (Exception e) {
+            log.warn("Batch insert of {} orders failed, retrying one by one", orders.size(), e);
+            saveIndividually(requests, acknowledgement);
+            pipelineMetrics.recordCreate(startNanos, "batch", "fallback");
+        }
+    }
+
+    /**
+     * Save each order in a transaction of its own. The orders are rebuilt from their requests:
+     * the failed batch left ids and versions on its entities that were rolled back, and an
+     * entity with a version would be merged as a copy without its idempotency key.
+     */
+    private void saveIndividually(Map<Message<String>, OrderRequest> requests, BatchAcknowledgement<String> acknowledgement) {
+        List<Message<String>> saved = new ArrayList<>();
+        List<Message<String>> duplicates = new ArrayList<>();
+        requests.forEach((message, request) -> {
+            try {
+                orderService.createOrders(List.of(orderService.buildOrder(request)));
+                saved.add(message);
+            } catch (Exception e) {
+                // The batch may have failed because another delivery of this message committed first
+                if (orderDeduplicator.isDuplicate(request.getIdempotencyKey())) {
+                    duplicates.add(message);
+                } else {
+                    log.error("Failed to save order for customer: {}", request.getCustomerEmail(), e);
+                    recordFailure();
+                }
+            }
+        });
+
+        if (!saved.isEmpty()) {
+            acknowledgement.acknowledge(saved);
+            recordSuccess(saved.size());
+        }
+        if (!duplicates.isEmpty()) {
+            acknowledgement.acknowledge(duplicates);
+            recordDuplicates(duplicates.size());
+        }
+    }
+
+    private void recordSuccess(int count) {
+        meterRegistry.counter("orders.consumed", "mode", "batch", "outcome", "success").increment(count);
+    }
+
+    private void recordDuplicates(int count) {
+        meterRegistry.counter("orders.consumed", "mode", "batch", "outcome", "duplicate").increment(count);
+    }
+
+    private void recordFailure() {
+        meterRegistry.counter("orders.consumed", "mode", "batch", "outcome", "failure").increment();
+    }
+}
@@ -1,32 +1,80 @@
 package com.food.Nest.messaging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.Nest.orders.model.OrderRequest;
 import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.service.OrderDeduplicator;
+import com.food.Nest.orders.service.OrderPipelineMetrics;
 import com.food.Nest.orders.service.OrderService;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "nest.orders.consumer.batch-enabled", havingValue = "false", matchIfMissing = true)
 public class OrderMessageConsumer {
 
     private static final String ORDER_QUEUE = "food-order-queue";
     private final OrderService orderService;
-    private final ObjectMapper objectMapper;
+    private final OrderDeduplicator orderDeduplicator;
+    private final MessageCodec messageCodec;
+    private final MeterRegistry meterRegistry;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final ListenerWorkExecutor listenerWorkExecutor;
+
+    @SqsListener(value = ORDER_QUEUE,
+            maxConcurrentMessages = "${nest.orders.consumer.max-concurrent-messages:10}",
+            maxMessagesPerPoll = "${nest.orders.consumer.max-messages-per-poll:10}",
+            pollTimeoutSeconds = "${nest.orders.consumer.poll-timeout-seconds:10}")
+    public CompletableFuture<Void> consumeOrderMessage(
+            @Payload String messageBody,
+            @Header(name = MessageCodec.CONTENT_TYPE_ATTRIBUTE, required = false) String contentType,
+            @Header(name = SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP, required = false) String sentTimestamp) {
+        pipelineMetrics.recordQueueWait(ORDER_QUEUE, sentTimestamp);
+        // The message is acknowledged only once the returned future completes successfully
+        return listenerWorkExecutor.run(() -> consume(messageBody, contentType));
+    }
 
-    @SqsListener(value = ORDER_QUEUE)
-    public void consumeOrderMessage(String messageJson) {
+    private void consume(String messageBody, String contentType) {
+        long startNanos = System.nanoTime();
+        OrderRequest orderRequest = null;
         try {
-            OrderRequest orderRequest = objectMapper.readValue(messageJson, OrderRequest.class);
+            orderRequest = messageCodec.decode(messageBody, contentType, OrderRequest.class);
+            if (orderDeduplicator.isDuplicate(orderRequest.getIdempotencyKey())) {
+                log.info("Dropping duplicate order message with idempotency key: {}", orderRequest.getIdempotencyKey());
+                meterRegistry.counter("orders.consumed", "mode", "single", "outcome", "duplicate").increment();
+                return;
+            }
             log.info("Received order message for customer: {}", orderRequest.getCustomerEmail());
             OrderEntity order = orderService.createOrder(orderRequest);
             log.info("Order processed and saved with ID: {}", order.getOrderId());
+            meterRegistry.counter("orders.consumed", "mode", "single", "outcome", "success").increment();
+            pipelineMetrics.recordCreate(startNanos, "single", "success");
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same message may have committed first
+            if (orderRequest != null && orderDeduplicator.isDuplicate(orderRequest.getIdempotencyKey())) {
+                log.info("Dropping duplicate order message with idempotency key: {}", orderRequest.getIdempotencyKey());
+                meterRegistry.counter("orders.consumed", "mode", "single", "outcome", "duplicate").increment();
+                return;
+            }
+            log.error("Failed to process order message", e);
+            meterRegistry.counter("orders.consumed", "mode", "single", "outcome", "failure").increment();
+            pipelineMetrics.recordCreate(startNanos, "single", "failure");
+            throw new RuntimeException("Failed to process order message", e);
         } catch (Exception e) {
             log.error("Failed to process order message", e);
+            meterRegistry.counter("orders.consumed", "mode", "single", "outcome", "failure").increment();
+            pipelineMetrics.recordCreate(startNanos, "single", "failure");
             throw new RuntimeException("Failed to process order message", e);
         }
     }
@@ -1,29 +1,227 @@
 package com.food.Nest.messaging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.Nest.orders.model.OrderRequest;
-import io.awspring.cloud.sqs.operations.SqsTemplate;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sends order messages to the order queue in SendMessageBatch calls.
+ * Callers get a future right away; a single sender thread gathers concurrent
+ * messages until the batch is full or the linger time has passed, sends them
+ * together and completes every caller's future with its own entry's result.
+ * At most max-pending messages wait for the sender; beyond that, and once the
+ * producer is stopping, sends fail at once instead of queueing.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OrderMessageProducer {
 
     private static final String ORDER_QUEUE = "food-order-queue";
-    private final SqsTemplate sqsTemplate;
-    private final ObjectMapper objectMapper;
+    private static final int MAX_BATCH_ENTRIES = 10;
+    private static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final MessageCodec messageCodec;
+    private final BlockingQueue<PendingMessage> pending;
+    // Enqueuing holds the read lock, so no message can slip in after stop() flips running and drains
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final int batchSize;
+    private final Duration linger;
+    private final DistributionSummary batchFillRatio;
+    private final Counter batchesSent;
+    private final Counter messagesFailed;
+    private final Counter messagesRejected;
+
+    private volatile String queueUrl;
+    private volatile boolean running;
+    private Thread sender;
+
+    public OrderMessageProducer(SqsAsyncClient sqsAsyncClient,
+                                MessageCodec messageCodec,
+                                MeterRegistry meterRegistry,
+                                @Value("${nest.orders.producer.batch-size:10}") int batchSize,
+                                @Value("${nest.orders.producer.linger:5ms}") Duration linger,
+                                @Value("${nest.orders.producer.max-pending:1000}") int maxPending) {
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.messageCodec = messageCodec;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_ENTRIES));
+        this.linger = linger;
+        this.pending = new ArrayBlockingQueue<>(maxPending);
+        this.batchFillRatio = DistributionSummary.builder("orders.producer.batch.fill.ratio")
+                .description("Share of the maximum batch size used by each SendMessageBatch call")
+                .register(meterRegistry);
+        this.batchesSent = meterRegistry.counter("orders.producer.batches");
+        this.messagesFailed = meterRegistry.counter("orders.producer.messages.failed");
+        this.messagesRejected = meterRegistry.counter("orders.producer.messages.rejected");
+    }
 
-    public void sendOrderMessage(OrderRequest orderRequest) {
+    public CompletableFuture<Void> sendOrderMessage(OrderRequest orderRequest) {
+        String messageBody;
         try {
-            String messageJson = objectMapper.writeValueAsString(orderRequest);
-            sqsTemplate.send(ORDER_QUEUE, messageJson);
-            log.info("Order message sent successfully to queue: {}", ORDER_QUEUE);
+            messageBody = messageCodec.encode(orderRequest);
         } catch (Exception e) {
-            log.error("Failed to send order message to queue: {}", ORDER_QUEUE, e);
+            log.error("Failed to serialize order message for queue: {}", ORDER_QUEUE, e);
             throw new RuntimeException("Failed to send order message", e);
         }
+
+        PendingMessage message = new PendingMessage(messageBody,
+                messageBody.getBytes(StandardCharsets.UTF_8).length, new CompletableFuture<>());
+        stateLock.readLock().lock();
+        try {
+            if (!running) {
+                message.future().completeExceptionally(new IllegalStateException("Order message producer is stopped"));
+            } else if (!pending.offer(message)) {
+                messagesRejected.increment();
+                message.future().completeExceptionally(
+                        new IllegalStateException("Too many order messages waiting to be sent"));
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return message.future();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        sender = Thread.ofPlatform().name("order-message-producer").daemon().start(this::sendLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        sender.interrupt();
+        sender.join(TimeUnit.SECONDS.toMillis(5));
+        List<PendingMessage> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        while (!remaining.isEmpty()) {
+            List<PendingMessage> batch = new ArrayList<>(remaining.subList(0, Math.min(batchSize, remaining.size())));
+            remaining.subList(0, batch.size()).clear();
+            sendBatch(batch).join();
+        }
+    }
+
+    private void sendLoop() {
+        while (running) {
+            try {
+                PendingMessage first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                sendBatch(collectBatch(first));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected failure in order message sender", e);
+            }
+        }
+    }
+
+    private List<PendingMessage> collectBatch(PendingMessage first) throws InterruptedException {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        int batchBytes = first.size();
+        long deadline = System.nanoTime() + linger.toNanos();
+
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingMessage next = remaining > 0
+                    ? pending.poll(remaining, TimeUnit.NANOSECONDS)
+                    : pending.poll();
+            if (next == null) {
+                break;
+            }
+            if (batchBytes + next.size() > MAX_BATCH_BYTES) {
+                sendBatch(batch);
+                batch = new ArrayList<>(batchSize);
+                batchBytes = 0;
+            }
+            batch.add(next);
+            batchBytes += next.size();
+        }
+        return batch;
+    }
+
+    private CompletableFuture<Void> sendBatch(List<PendingMessage> batch) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .messageBody(batch.get(i).body())
+                    .messageAttributes(messageCodec.messageAttributes())
+                    .build());
+        }
+
+        batchesSent.increment();
+        batchFillRatio.record((double) batch.size() / batchSize);
+
+        return resolveQueueUrl()
+                .thenCompose(url -> sqsAsyncClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                        .queueUrl(url)
+                        .entries(entries)
+                        .build()))
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Failed to send batch of {} order messages to queue: {}", batch.size(), ORDER_QUEUE, throwable);
+                        messagesFailed.increment(batch.size());
+                        batch.forEach(message -> message.future().completeExceptionally(
+                                new RuntimeException("Failed to send order message", throwable)));
+                    } else {
+                        completeEntries(batch, response);
+                    }
+                    return null;
+                });
+    }
+
+    private void completeEntries(List<PendingMessage> batch, SendMessageBatchResponse response) {
+        response.successful().forEach(entry ->
+                batch.get(Integer.parseInt(entry.id())).future().complete(null));
+
+        for (BatchResultErrorEntry failed : response.failed()) {
+            log.error("Order message rejected by queue: {} ({}: {})", ORDER_QUEUE, failed.code(), failed.message());
+            messagesFailed.increment();
+            batch.get(Integer.parseInt(failed.id())).future().completeExceptionally(
+                    new RuntimeException("Failed to send order message: " + failed.code()));
+        }
+        log.info("Sent batch of {} order messages to queue: {}", response.successful().size(), ORDER_QUEUE);
+    }
+
+    private CompletableFuture<String> resolveQueueUrl() {
+        if (queueUrl != null) {
+            return CompletableFuture.completedFuture(queueUrl);
+        }
+        return sqsAsyncClient.getQueueUrl(builder -> builder.queueName(ORDER_QUEUE))
+                .thenApply(response -> queueUrl = response.queueUrl());
+    }
+
+    private record PendingMessage(String body, int size, CompletableFuture<Void> future) {
     }
 }
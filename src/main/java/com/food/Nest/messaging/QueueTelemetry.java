@@ -0,0 +1,159 @@
+package com.food.Nest.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+ * Background view of the application's SQS queues.
+ * Queue URLs are resolved once; a scheduled poll then fetches every queue's
+ * message counts with the async client and caches the latest result, which
+ * the admin endpoint and the Micrometer gauges read without calling SQS.
+ */
+@Slf4j
+@Component
+public class QueueTelemetry {
+
+    private static final List<QueueAttributeName> ATTRIBUTES = List.of(
+            QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES,
+            QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE,
+            QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_DELAYED);
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final List<String> queueNames;
+    private final Map<String, String> queueUrls = new ConcurrentHashMap<>();
+    private final Map<String, QueueStats> stats = new ConcurrentHashMap<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    public QueueTelemetry(SqsAsyncClient sqsAsyncClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${aws.sqs.order-processing-queue}") String orderProcessingQueue,
+                          @Value("${aws.sqs.notification-queue}") String notificationQueue) {
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.queueNames = List.of(orderProcessingQueue, notificationQueue);
+        for (String queueName : queueNames) {
+            registerGauge(meterRegistry, queueName, "visible", QueueStats::visible);
+            registerGauge(meterRegistry, queueName, "in_flight", QueueStats::inFlight);
+            registerGauge(meterRegistry, queueName, "delayed", QueueStats::delayed);
+        }
+    }
+
+    /**
+     * Latest counts of one queue, or null before its first poll
+     */
+    public QueueStats getStats(String queueName) {
+        return stats.get(queueName);
+    }
+
+    /**
+     * Latest counts of every queue, in configuration order
+     */
+    public Map<String, QueueStats> getAllStats() {
+        Map<String, QueueStats> all = new LinkedHashMap<>();
+        queueNames.forEach(queueName -> all.put(queueName, stats.get(queueName)));
+        return all;
+    }
+
+    public String getQueueUrl(String queueName) {
+        return queueUrls.get(queueName);
+    }
+
+    /**
+     * Start one poll of every queue unless the previous one is still running
+     */
+    @Scheduled(fixedRateString = "${nest.messaging.telemetry.poll-interval:PT10S}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.allOf(queueNames.stream().map(this::pollQueue).toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, throwable) -> polling.set(false));
+    }
+
+    private CompletableFuture<Void> pollQueue(String queueName) {
+        return resolveQueueUrl(queueName)
+                .thenCompose(queueUrl -> sqsAsyncClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                        .queueUrl(queueUrl)
+                        .attributeNames(ATTRIBUTES)
+                        .build()))
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        log.warn("Failed to poll queue attributes for: {}", queueName, throwable);
+                        stats.compute(queueName, (name, previous) -> previous == null
+                                ? new QueueStats(name, queueUrls.get(name), 0, 0, 0, null, String.valueOf(throwable.getMessage()))
+                                : previous.withError(throwable));
+                        return null;
+                    }
+                    Map<QueueAttributeName, String> attributes = response.attributes();
+                    stats.put(queueName, new QueueStats(queueName, queueUrls.get(queueName),
+                            count(attributes, QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES),
+                            count(attributes, QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE),
+                            count(attributes, QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_DELAYED),
+                            Instant.now(), null));
+                    return null;
+                });
+    }
+
+    private CompletableFuture<String> resolveQueueUrl(String queueName) {
+        String queueUrl = queueUrls.get(queueName);
+        if (queueUrl != null) {
+            return CompletableFuture.completedFuture(queueUrl);
+        }
+        return sqsAsyncClient.getQueueUrl(builder -> builder.queueName(queueName))
+                .thenApply(response -> {
+                    queueUrls.put(queueName, response.queueUrl());
+                    return response.queueUrl();
+                });
+    }
+
+    private void registerGauge(MeterRegistry meterRegistry, String queueName, String state,
+                               ToLongFunction<QueueStats> value) {
+        Gauge.builder("sqs.queue.messages", stats, all -> {
+                    QueueStats queueStats = all.get(queueName);
+                    return queueStats == null || queueStats.sampledAt() == null
+                            ? Double.NaN : value.applyAsLong(queueStats);
+                })
+                .description("Approximate number of messages in the queue at the last poll")
+                .tag("queue", queueName)
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    private static long count(Map<QueueAttributeName, String> attributes, QueueAttributeName name) {
+        String value = attributes.get(name);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    /**
+     * Message counts of one queue as of sampledAt; lastError is set when the latest poll failed,
+     * and sampledAt is null while no poll has succeeded yet
+     */
+    public record QueueStats(String queueName,
+                             String queueUrl,
+                             long visible,
+                             long inFlight,
+                             long delayed,
+                             Instant sampledAt,
+                             String lastError) {
+
+        QueueStats withError(Throwable throwable) {
+            return new QueueStats(queueName, queueUrl, visible, inFlight, delayed, sampledAt,
+                    String.valueOf(throwable.getMessage()));
+        }
+    }
+}
@@ -1,80 +1,232 @@
 package com.food.Nest.orders.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.food.Nest.messaging.OrderAdmissionGate;
 import com.food.Nest.messaging.OrderMessageProducer;
+import com.food.Nest.orders.model.OrderDetail;
+import com.food.Nest.orders.model.OrderPage;
 import com.food.Nest.orders.model.OrderRequest;
-import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.OrderStatusUpdateRequest;
+import com.food.Nest.orders.model.OrderStatusUpdateResult;
+import com.food.Nest.orders.model.OrderSummary;
 import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.service.OrderPipelineMetrics;
 import com.food.Nest.orders.service.OrderService;
+import com.food.Nest.orders.service.OrderStatusBroadcaster;
+import com.food.Nest.orders.service.OrderStatusConflictException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final String DEFAULT_PAGE_SIZE = "50";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final OrderMessageProducer messageProducer;
+    private final OrderAdmissionGate admissionGate;
     private final OrderService orderService;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final OrderStatusBroadcaster statusBroadcaster;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Queue an order. A client retry carrying the same Idempotency-Key creates at most one order;
+     * requests without a key get a fresh one so queue redeliveries are still deduplicated.
+     * While the order queue is too far behind the request is refused with 429 and Retry-After,
+     * unless it retries an order that was already accepted.
+     */
     @PostMapping
-    public ResponseEntity<String> createOrder(@Valid @RequestBody OrderRequest request) {
-        messageProducer.sendOrderMessage(request);
-        return ResponseEntity.accepted().body("Order request accepted and queued for processing");
+    public CompletableFuture<ResponseEntity<String>> createOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        long startNanos = System.nanoTime();
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > 64) {
+                throw new IllegalArgumentException("Idempotency-Key must be 1 to 64 characters");
+            }
+            request.setIdempotencyKey(idempotencyKey);
+        }
+        // Before a key is generated, so only keys a client may retry with are remembered
+        Optional<Duration> retryAfter = admissionGate.retryAfter(request.getIdempotencyKey());
+        if (retryAfter.isPresent()) {
+            pipelineMetrics.recordAccept(startNanos, "rejected");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter.get().toSeconds()))
+                    .body("Too many orders are waiting to be processed, please retry later"));
+        }
+        if (request.getIdempotencyKey() == null) {
+            request.setIdempotencyKey(UUID.randomUUID().toString());
+        }
+        return messageProducer.sendOrderMessage(request)
+                .whenComplete((sent, e) -> pipelineMetrics.recordAccept(startNanos, e == null ? "accepted" : "failed"))
+                .thenApply(sent -> ResponseEntity.accepted()
+                        .header(IDEMPOTENCY_KEY_HEADER, request.getIdempotencyKey())
+                        .body("Order request accepted and queued for processing"));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderEntity> getOrder(@PathVariable Long id) {
-        Optional<OrderEntity> order = orderService.getOrder(id);
+    public ResponseEntity<OrderDetail> getOrder(@PathVariable Long id) {
+        Optional<OrderDetail> order = orderService.getOrder(id);
         return order.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Live status of one order as Server-Sent Events, starting with its current state.
+     * A reconnecting client sends Last-Event-ID and gets the changes it missed instead.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderStatus(
+            @PathVariable Long id,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return statusBroadcaster.subscribeToOrder(id, lastEventId, () -> orderService.getOrderSummary(id))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Live status changes of every order of one customer as Server-Sent Events
+     */
+    @GetMapping(value = "/customer/{email}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCustomerOrderStatus(
+            @PathVariable String email,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return ResponseEntity.ok(statusBroadcaster.subscribeToCustomer(email, lastEventId));
+    }
+
     @GetMapping("/customer/{email}")
-    public ResponseEntity<List<OrderEntity>> getOrdersByCustomerEmail(@PathVariable String email) {
-        List<OrderEntity> orders = orderService.getOrdersByCustomerEmail(email);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage<OrderSummary>> getOrdersByCustomerEmail(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(orderService.getOrdersByCustomerEmail(email, cursor, size));
+    }
+
+    /**
+     * Orders of a customer that are still in progress, served from memory
+     */
+    @GetMapping("/customer/{email}/active")
+    public ResponseEntity<List<OrderSummary>> getActiveOrdersByCustomerEmail(@PathVariable String email) {
+        return ResponseEntity.ok(orderService.getActiveOrdersByCustomerEmail(email));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderEntity>> getOrdersByStatus(@PathVariable OrderStatus status) {
-        List<OrderEntity> orders = orderService.getOrdersByStatus(status);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage<OrderSummary>> getOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(orderService.getOrdersByStatus(status, cursor, size));
+    }
+
+    @GetMapping(value = "/status/{status}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamOrdersByStatus(@PathVariable OrderStatus status) {
+        return ndjson(writer -> orderService.streamOrdersByStatus(status, writer));
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<OrderEntity>> getPendingOrders() {
-        List<OrderEntity> orders = orderService.getPendingOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage<OrderSummary>> getPendingOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(orderService.getPendingOrders(cursor, size));
+    }
+
+    @GetMapping("/between")
+    public ResponseEntity<OrderPage<OrderSummary>> getOrdersBetweenDates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(orderService.getOrdersBetweenDates(from, to, cursor, size));
+    }
+
+    @GetMapping(value = "/between/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamOrdersBetweenDates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ndjson(writer -> orderService.streamOrdersBetweenDates(from, to, writer));
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<OrderEntity> updateOrderStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
+    public ResponseEntity<OrderSummary> updateOrderStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
         try {
-            OrderEntity order = orderService.updateOrderStatus(id, status);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Apply many status changes at once, e.g. when a kitchen screen advances a batch of tickets.
+     * Every order reports its own outcome; one that cannot move does not fail the others.
+     */
+    @PutMapping("/status")
+    public ResponseEntity<List<OrderStatusUpdateResult>> updateOrderStatuses(
+            @Valid @RequestBody OrderStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getUpdates()));
+    }
+
     @PutMapping("/{id}/cancel")
-    public ResponseEntity<OrderEntity> cancelOrder(@PathVariable Long id) {
+    public ResponseEntity<OrderSummary> cancelOrder(@PathVariable Long id) {
         try {
-            OrderEntity order = orderService.cancelOrder(id);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.cancelOrder(id));
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
     @GetMapping("/statistics")
     public ResponseEntity<OrderService.OrderStatistics> getOrderStatistics() {
         OrderService.OrderStatistics stats = orderService.getOrderStatistics();
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Write each order as one JSON line as rows arrive from the database cursor
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<OrderSummary>> source) {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> source.accept(order -> {
+            try {
+                writer.writeValue(outputStream, order);
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
 }
@@ -0,0 +1,39 @@
+package com.food.Nest.orders.model;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Broadcast over SNS so that the active orders projection of every node sees orders
+ * created or moved on another node
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ActiveOrderChange {
+    private String sourceNodeId;
+    private Long orderId;
+    private String customerName;
+    private String customerEmail;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime estimatedDeliveryTime;
+
+    public static ActiveOrderChange of(String sourceNodeId, OrderSummary order) {
+        return new ActiveOrderChange(sourceNodeId, order.getOrderId(), order.getCustomerName(),
+                order.getCustomerEmail(), order.getStatus(), order.getTotalAmount(), order.getCreatedAt(),
+                order.getUpdatedAt(), order.getEstimatedDeliveryTime());
+    }
+
+    public OrderSummary toSummary() {
+        return new OrderSummary(orderId, customerName, customerEmail, status, totalAmount, createdAt,
+                updatedAt, estimatedDeliveryTime);
+    }
+}
@@ -0,0 +1,69 @@
+package com.food.Nest.orders.model;
+
+import com.food.Nest.orders.model.entity.ArchivedOrderEntity;
+import com.food.Nest.orders.model.entity.ArchivedOrderItemEntity;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only view of one order with its items.
+ * Build it from an order whose items and menu items were fetched in the same query.
+ */
+@Value
+public class OrderDetail {
+    Long orderId;
+    String customerName;
+    String customerEmail;
+    String customerPhone;
+    String deliveryAddress;
+    OrderStatus status;
+    BigDecimal totalAmount;
+    List<Item> orderItems;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    LocalDateTime estimatedDeliveryTime;
+
+    public static OrderDetail from(OrderEntity order) {
+        List<Item> items = order.getOrderItems().stream()
+                .map(Item::from)
+                .toList();
+        return new OrderDetail(order.getOrderId(), order.getCustomerName(), order.getCustomerEmail(),
+                order.getCustomerPhone(), order.getDeliveryAddress(), order.getStatus(), order.getTotalAmount(),
+                items, order.getCreatedAt(), order.getUpdatedAt(), order.getEstimatedDeliveryTime());
+    }
+
+    public static OrderDetail from(ArchivedOrderEntity order) {
+        List<Item> items = order.getOrderItems().stream()
+                .map(Item::from)
+                .toList();
+        return new OrderDetail(order.getOrderId(), order.getCustomerName(), order.getCustomerEmail(),
+                order.getCustomerPhone(), order.getDeliveryAddress(), order.getStatus(), order.getTotalAmount(),
+                items, order.getCreatedAt(), order.getUpdatedAt(), order.getEstimatedDeliveryTime());
+    }
+
+    @Value
+    public static class Item {
+        Long id;
+        Long menuItemId;
+        String menuItemName;
+        Integer quantity;
+        BigDecimal unitPrice;
+        BigDecimal totalPrice;
+        String specialInstructions;
+
+        static Item from(OrderItem item) {
+            return new Item(item.getId(), item.getMenuItem().getMenuId(), item.getMenuItem().getName(),
+                    item.getQuantity(), item.getUnitPrice(), item.getTotalPrice(), item.getSpecialInstructions());
+        }
+
+        static Item from(ArchivedOrderItemEntity item) {
+            return new Item(item.getId(), item.getMenuItem().getMenuId(), item.getMenuItem().getName(),
+                    item.getQuantity(), item.getUnitPrice(), item.getTotalPrice(), item.getSpecialInstructions());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.food.Nest.orders.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an order listing; pass nextCursor back to fetch the following page
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OrderPage<T> {
+    private List<T> orders;
+    private String nextCursor;
+}
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.util.List;
@@ -28,4 +29,10 @@ public class OrderRequest {
     @Valid
     private List<OrderItemRequest> orderItems;
 
+    /**
+     * Identifies one order request across client retries and queue redeliveries
+     */
+    @Size(max = 64, message = "Idempotency key must be at most 64 characters")
+    private String idempotencyKey;
+
 }
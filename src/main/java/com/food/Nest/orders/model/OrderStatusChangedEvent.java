@@ -0,0 +1,15 @@
+package com.food.Nest.orders.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published by OrderService when an order is created and for every applied status transition
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OrderStatusChangedEvent {
+    private OrderSummary order;
+}
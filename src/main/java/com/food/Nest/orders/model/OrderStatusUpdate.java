@@ -0,0 +1,19 @@
+package com.food.Nest.orders.model;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdate {
+
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    @NotNull(message = "Target status is required")
+    private OrderStatus status;
+}
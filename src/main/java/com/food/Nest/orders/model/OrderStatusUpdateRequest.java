@@ -0,0 +1,15 @@
+package com.food.Nest.orders.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderStatusUpdateRequest {
+
+    @NotEmpty(message = "Status updates are required")
+    @Valid
+    private List<OrderStatusUpdate> updates;
+}
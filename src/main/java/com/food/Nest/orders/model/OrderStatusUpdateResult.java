@@ -0,0 +1,28 @@
+package com.food.Nest.orders.model;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import lombok.Value;
+
+/**
+ * Outcome of one status change in a bulk update
+ */
+@Value
+public class OrderStatusUpdateResult {
+    Long orderId;
+    OrderStatus requestedStatus;
+    Outcome outcome;
+    OrderSummary order;
+    String error;
+
+    public enum Outcome {
+        UPDATED, CONFLICT, NOT_FOUND, REJECTED
+    }
+
+    public static OrderStatusUpdateResult updated(OrderStatus requestedStatus, OrderSummary order) {
+        return new OrderStatusUpdateResult(order.getOrderId(), requestedStatus, Outcome.UPDATED, order, null);
+    }
+
+    public static OrderStatusUpdateResult failed(Long orderId, OrderStatus requestedStatus, Outcome outcome, String error) {
+        return new OrderStatusUpdateResult(orderId, requestedStatus, outcome, null, error);
+    }
+}
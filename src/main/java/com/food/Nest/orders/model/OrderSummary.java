@@ -0,0 +1,29 @@
+package com.food.Nest.orders.model;
+
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an order for listings, loaded without its items
+ */
+@Value
+public class OrderSummary {
+    Long orderId;
+    String customerName;
+    String customerEmail;
+    OrderStatus status;
+    BigDecimal totalAmount;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    LocalDateTime estimatedDeliveryTime;
+
+    public static OrderSummary from(OrderEntity order) {
+        return new OrderSummary(order.getOrderId(), order.getCustomerName(), order.getCustomerEmail(),
+                order.getStatus(), order.getTotalAmount(), order.getCreatedAt(), order.getUpdatedAt(),
+                order.getEstimatedDeliveryTime());
+    }
+}
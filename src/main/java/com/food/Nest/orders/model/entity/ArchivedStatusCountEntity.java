@@ -0,0 +1,25 @@
+package com.food.Nest.orders.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running total of archived orders per status. OrderArchiver adds each batch to these
+ * counts in the same transaction that moves it, so status totals never have to scan
+ * the archive itself.
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "orders_archive_status_counts")
+public class ArchivedStatusCountEntity {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,11 +21,16 @@ import java.util.List;
 @NoArgsConstructor
 @Getter
 @Setter
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_created", columnList = "customer_email, created_at DESC, order_id DESC"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at DESC, order_id DESC"),
+        @Index(name = "idx_orders_created", columnList = "created_at DESC, order_id DESC")
+})
 public class OrderEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long orderId;
 
     @NotBlank(message = "Customer name is required")
@@ -64,6 +70,17 @@ public class OrderEntity {
     @Column(name = "estimated_delivery_time")
     private LocalDateTime estimatedDeliveryTime;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Idempotency key of the request this order was created from; stored in order_idempotency_keys
+     */
+    @Transient
+    private String idempotencyKey;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,54 @@
+package com.food.Nest.orders.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency key of an order that has been created, written in the same transaction as the order.
+ * The key is the primary key, so a second order with the same key cannot commit.
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "order_idempotency_keys", indexes = {
+        @Index(name = "idx_order_idempotency_keys_created", columnList = "created_at")
+})
+public class OrderIdempotencyKeyEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OrderIdempotencyKeyEntity(String idempotencyKey, Long orderId) {
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Keys are only ever inserted, so save() can persist without looking the key up first
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -2,6 +2,12 @@ package com.food.Nest.orders.model.entity;
 
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 @Getter
 public enum OrderStatus {
     PENDING("Pending"),
@@ -12,10 +18,61 @@ public enum OrderStatus {
     DELIVERED("Delivered"),
     CANCELLED("Cancelled");
 
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> PREDECESSORS = new EnumMap<>(OrderStatus.class);
+    private static final Set<OrderStatus> ACTIVE = EnumSet.noneOf(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(PREPARING, CANCELLED));
+        TRANSITIONS.put(PREPARING, EnumSet.of(READY, CANCELLED));
+        TRANSITIONS.put(READY, EnumSet.of(OUT_FOR_DELIVERY, DELIVERED, CANCELLED));
+        TRANSITIONS.put(OUT_FOR_DELIVERY, EnumSet.of(DELIVERED, CANCELLED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus status : values()) {
+            PREDECESSORS.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> PREDECESSORS.get(to).add(from)));
+        TRANSITIONS.forEach((status, targets) -> {
+            if (!targets.isEmpty()) {
+                ACTIVE.add(status);
+            }
+        });
+    }
+
     private final String displayName;
 
     OrderStatus(String displayName) {
         this.displayName = displayName;
     }
 
-}
\ No newline at end of file
+    /**
+     * Whether an order in this status may move to the given status
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Whether an order in this status can no longer change
+     */
+    public boolean isTerminal() {
+        return TRANSITIONS.get(this).isEmpty();
+    }
+
+    /**
+     * Statuses an order has to be in to move to this status
+     */
+    public Set<OrderStatus> getPredecessors() {
+        return Collections.unmodifiableSet(PREDECESSORS.get(this));
+    }
+
+    /**
+     * Statuses an order is in while it can still change
+     */
+    public static Set<OrderStatus> getActiveStatuses() {
+        return Collections.unmodifiableSet(ACTIVE);
+    }
+}
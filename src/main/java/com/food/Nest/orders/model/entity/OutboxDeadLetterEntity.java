@@ -0,0 +1,57 @@
+package com.food.Nest.orders.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox event the relay gave up on after too many failed attempts.
+ * Kept for inspection and manual replay, out of the way of the order's later events.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "order_outbox_dead_letter", indexes = {
+        @Index(name = "idx_order_outbox_dead_letter_order", columnList = "order_id, id")
+})
+public class OutboxDeadLetterEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public static OutboxDeadLetterEntity from(OutboxEventEntity event, LocalDateTime failedAt, String lastError) {
+        return new OutboxDeadLetterEntity(event.getId(), event.getOrderId(), event.getEventType(), event.getPayload(),
+                event.getContentType(), event.getAttempts(), event.getCreatedAt(), failedAt,
+                lastError == null || lastError.length() <= 1000 ? lastError : lastError.substring(0, 1000));
+    }
+}
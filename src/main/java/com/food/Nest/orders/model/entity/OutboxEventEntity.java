@@ -0,0 +1,75 @@
+package com.food.Nest.orders.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order event waiting to be published, written in the same transaction as the change it describes
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_order", columnList = "order_id, order_version, id"),
+        @Index(name = "idx_order_outbox_next_attempt", columnList = "next_attempt_at, id")
+})
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /**
+     * Version the change gave the order, which orders the events of one order across nodes;
+     * ids come from per-node sequence blocks and do not
+     */
+    @ColumnDefault("0")
+    @Column(name = "order_version", nullable = false)
+    private Long orderVersion;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    public OutboxEventEntity(Long orderId, Long orderVersion, String eventType, String payload, String contentType) {
+        this.orderId = orderId;
+        this.orderVersion = orderVersion;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.contentType = contentType;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.entity.ArchivedOrderEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrderEntity, Long> {
+
+    @Query("SELECT DISTINCT o FROM ArchivedOrderEntity o " +
+            "LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.menuItem WHERE o.orderId = :orderId")
+    Optional<ArchivedOrderEntity> findWithItemsByOrderId(@Param("orderId") Long orderId);
+
+    /*
+     * Moving orders to the archive: lock a keyset batch of finished orders, copy them and
+     * their items, then delete the originals, all in one short transaction per batch
+     */
+
+    /**
+     * Lock the next finished orders created before the cutoff and after the given key, oldest first.
+     * Orders locked by a concurrent transaction are skipped rather than waited for.
+     */
+    @Query(value = "SELECT order_id AS \"orderId\", created_at AS \"createdAt\" FROM orders " +
+            "WHERE status IN (:statuses) AND created_at < :cutoff AND updated_at < :cutoff " +
+            "AND (created_at, order_id) > (:afterCreatedAt, :afterOrderId) " +
+            "ORDER BY created_at, order_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ArchiveCandidate> lockNextArchiveBatch(@Param("statuses") Collection<String> statuses,
+                                                @Param("cutoff") LocalDateTime cutoff,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterOrderId") Long afterOrderId,
+                                                @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (order_id, customer_name, customer_email, customer_phone, " +
+            "delivery_address, status, total_amount, created_at, updated_at, estimated_delivery_time, archived_at) " +
+            "SELECT order_id, customer_name, customer_email, customer_phone, delivery_address, status, " +
+            "total_amount, created_at, updated_at, estimated_delivery_time, :archivedAt " +
+            "FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrders(@Param("orderIds") Collection<Long> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Add the statuses of the given orders, before they are deleted, to the archived totals per status
+     */
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive_status_counts (status, order_count) " +
+            "SELECT status, COUNT(*) FROM orders WHERE order_id IN (:orderIds) GROUP BY status " +
+            "ON CONFLICT (status) DO UPDATE " +
+            "SET order_count = orders_archive_status_counts.order_count + EXCLUDED.order_count", nativeQuery = true)
+    int countArchivedStatuses(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Seed the archived totals per status from the archive itself while they are still empty,
+     * for archives filled before the totals were kept. A concurrent seed leaves the first one in place.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive_status_counts (status, order_count) " +
+            "SELECT status, COUNT(*) FROM orders_archive " +
+            "WHERE NOT EXISTS (SELECT 1 FROM orders_archive_status_counts) GROUP BY status " +
+            "ON CONFLICT (status) DO NOTHING", nativeQuery = true)
+    int seedArchivedStatusCounts();
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, menu_item_id, quantity, unit_price, " +
+            "total_price, special_instructions) " +
+            "SELECT id, order_id, menu_item_id, quantity, unit_price, total_price, special_instructions " +
+            "FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    interface ArchiveCandidate {
+        Long getOrderId();
+
+        LocalDateTime getCreatedAt();
+    }
+}
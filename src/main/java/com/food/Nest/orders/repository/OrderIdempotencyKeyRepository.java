@@ -0,0 +1,18 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.entity.OrderIdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKeyEntity, String> {
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKeyEntity k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,28 +1,212 @@
 package com.food.Nest.orders.repository;
 
+import com.food.Nest.orders.model.OrderSummary;
 import com.food.Nest.orders.model.entity.OrderEntity;
 import com.food.Nest.orders.model.entity.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
 
-    List<OrderEntity> findByCustomerEmailOrderByCreatedAtDesc(String customerEmail);
+    @Query("SELECT DISTINCT o FROM OrderEntity o " +
+            "LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.menuItem WHERE o.orderId = :orderId")
+    Optional<OrderEntity> findWithItemsByOrderId(@Param("orderId") Long orderId);
 
-    List<OrderEntity> findByStatusOrderByCreatedAtDesc(OrderStatus status);
+    /*
+     * Keyset pages: rows strictly after the (createdAt, orderId) of the previous page's last row
+     */
 
-    @Query("SELECT o FROM OrderEntity o " +
-            "WHERE o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.createdAt DESC")
-    List<OrderEntity> findOrdersBetweenDates(
+    /**
+     * A customer's page across the orders table and the archive, read in one statement so an
+     * order the archiver moves meanwhile is seen in exactly one of them. Each side is limited
+     * on its own index before the two are merged.
+     */
+    @Query(value = "(SELECT order_id AS \"orderId\", customer_name AS \"customerName\", customer_email AS \"customerEmail\", " +
+            "status AS \"status\", total_amount AS \"totalAmount\", created_at AS \"createdAt\", " +
+            "updated_at AS \"updatedAt\", estimated_delivery_time AS \"estimatedDeliveryTime\" FROM orders " +
+            "WHERE customer_email = :customerEmail AND (created_at, order_id) < (:createdAt, :orderId) " +
+            "ORDER BY created_at DESC, order_id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT order_id AS \"orderId\", customer_name AS \"customerName\", customer_email AS \"customerEmail\", " +
+            "status AS \"status\", total_amount AS \"totalAmount\", created_at AS \"createdAt\", " +
+            "updated_at AS \"updatedAt\", estimated_delivery_time AS \"estimatedDeliveryTime\" FROM orders_archive " +
+            "WHERE customer_email = :customerEmail AND (created_at, order_id) < (:createdAt, :orderId) " +
+            "ORDER BY created_at DESC, order_id DESC LIMIT :limit) " +
+            "ORDER BY \"createdAt\" DESC, \"orderId\" DESC LIMIT :limit", nativeQuery = true)
+    List<OrderSummaryRow> findPageByCustomerEmailIncludingArchive(
+            @Param("customerEmail") String customerEmail,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("orderId") Long orderId,
+            @Param("limit") int limit);
+
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.status = :status " +
+            "AND (o.createdAt, o.orderId) < (:createdAt, :orderId) ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<OrderSummary> findPageByStatus(
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("orderId") Long orderId,
+            Limit limit);
+
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.createdAt BETWEEN :startDate AND :endDate " +
+            "AND (o.createdAt, o.orderId) < (:createdAt, :orderId) ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<OrderSummary> findPageBetweenDates(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("orderId") Long orderId,
+            Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.status = :status ORDER BY o.createdAt DESC, o.orderId DESC")
+    Stream<OrderSummary> streamByStatus(@Param("status") OrderStatus status);
+
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.customerEmail = :customerEmail AND o.status IN :statuses " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    List<OrderSummary> findActiveByCustomerEmail(
+            @Param("customerEmail") String customerEmail,
+            @Param("statuses") Collection<OrderStatus> statuses);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.status IN :statuses")
+    Stream<OrderSummary> streamByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.createdAt DESC, o.orderId DESC")
+    Stream<OrderSummary> streamBetweenDates(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.status = :status")
-    Long countByStatus(@Param("status") OrderStatus status);
+    /**
+     * Orders per status, including those moved to the archive; archived orders come from the
+     * totals the archiver keeps rather than from the archive itself
+     */
+    @Query(value = "SELECT s.status AS status, CAST(SUM(s.order_count) AS BIGINT) AS count FROM (" +
+            "SELECT status, COUNT(*) AS order_count FROM orders GROUP BY status " +
+            "UNION ALL SELECT status, order_count FROM orders_archive_status_counts) s GROUP BY s.status",
+            nativeQuery = true)
+    List<StatusCount> countGroupedByStatus();
+
+    @Query("SELECT new com.food.Nest.orders.model.OrderSummary(o.orderId, o.customerName, o.customerEmail, " +
+            "o.status, o.totalAmount, o.createdAt, o.updatedAt, o.estimatedDeliveryTime) FROM OrderEntity o " +
+            "WHERE o.orderId = :orderId")
+    Optional<OrderSummary> findSummaryByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT o.status FROM OrderEntity o WHERE o.orderId = :orderId")
+    Optional<OrderStatus> findStatusByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT o.orderId AS orderId, o.status AS status FROM OrderEntity o WHERE o.orderId IN :orderIds")
+    List<OrderStatusView> findStatusesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Lock the given orders in id order for the rest of the transaction, so a bulk update that
+     * runs several transition statements takes all its row locks in the same order as any other.
+     */
+    @Query(value = "SELECT order_id FROM orders WHERE order_id IN (:orderIds) ORDER BY order_id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Move orders to a new status in one statement, each provided it is currently in one of the
+     * given statuses. Rows are locked in id order by the subquery, so concurrent transitions of
+     * the same order apply one after the other, each checked against the status the previous
+     * one left. Returns the orders that were updated; missing orders and orders in another
+     * status are left out. The locking subquery is a materialized CTE so the planner cannot push
+     * the status check below the lock, where it would see the status from before a concurrent
+     * transition committed and skip the row instead of waiting for it.
+     */
+    @Query(value = "WITH previous AS MATERIALIZED (SELECT order_id, status FROM orders " +
+            "WHERE order_id IN (:orderIds) ORDER BY order_id FOR UPDATE) " +
+            "UPDATE orders o SET status = :status, " +
+            "estimated_delivery_time = CAST(:estimatedDeliveryTime AS timestamp), " +
+            "updated_at = :now, version = o.version + 1 " +
+            "FROM previous " +
+            "WHERE o.order_id = previous.order_id AND previous.status IN (:fromStatuses) " +
+            "RETURNING o.order_id AS \"orderId\", o.customer_name AS \"customerName\", " +
+            "o.customer_email AS \"customerEmail\", o.status AS \"status\", previous.status AS \"previousStatus\", " +
+            "o.total_amount AS \"totalAmount\", o.created_at AS \"createdAt\", o.updated_at AS \"updatedAt\", " +
+            "o.estimated_delivery_time AS \"estimatedDeliveryTime\", o.version AS \"version\"",
+            nativeQuery = true)
+    List<StatusTransition> transitionStatuses(@Param("orderIds") Collection<Long> orderIds,
+                                             @Param("status") String status,
+                                             @Param("fromStatuses") Collection<String> fromStatuses,
+                                             @Param("estimatedDeliveryTime") LocalDateTime estimatedDeliveryTime,
+                                             @Param("now") LocalDateTime now);
+
+    interface OrderSummaryRow {
+        Long getOrderId();
+
+        String getCustomerName();
+
+        String getCustomerEmail();
+
+        OrderStatus getStatus();
+
+        BigDecimal getTotalAmount();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getEstimatedDeliveryTime();
+    }
+
+    interface StatusCount {
+        OrderStatus getStatus();
+
+        Long getCount();
+    }
+
+    interface OrderStatusView {
+        Long getOrderId();
+
+        OrderStatus getStatus();
+    }
+
+    interface StatusTransition {
+        Long getOrderId();
+
+        String getCustomerName();
+
+        String getCustomerEmail();
+
+        OrderStatus getStatus();
+
+        OrderStatus getPreviousStatus();
+
+        BigDecimal getTotalAmount();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getEstimatedDeliveryTime();
+
+        Long getVersion();
+    }
 }
@@ -0,0 +1,9 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.entity.OutboxDeadLetterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetterEntity, Long> {
+}
@@ -0,0 +1,29 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.entity.OutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Lock the next due events, taking only the pending event with the lowest order version
+     * of each order so events of one order are always published in order, even with several
+     * relays. Ids only break ties between events written before versions were recorded.
+     */
+    @Query(value = "SELECT * FROM order_outbox e " +
+            "WHERE e.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM order_outbox p WHERE p.order_id = e.order_id " +
+            "AND (p.order_version, p.id) < (e.order_version, e.id)) " +
+            "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventEntity> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEventEntity e")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,294 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory read model of every order that is not DELIVERED or CANCELLED yet,
+ * indexed by status and by customer email in the listing order (newest first).
+ * Loaded at startup, then kept current from committed order events of this node
+ * and, through ActiveOrdersReplicator, of every other node. A periodic reload
+ * catches anything a broadcast missed. Reads never lock; writers are serialized
+ * so a reload cannot lose a concurrent change.
+ */
+@Slf4j
+@Component
+public class ActiveOrdersProjection {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    // Orders that reached a terminal status here, so late events cannot bring them back
+    private final Cache<Long, OrderStatus> finishedOrders = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private final Object writeLock = new Object();
+    // A lock rather than a monitor: reloads query the database and may run on virtual threads
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+    private Set<Long> changedDuringReload;
+
+    public ActiveOrdersProjection(OrderRepository orderRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${nest.orders.active.enabled:true}") boolean enabled) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        Gauge.builder("orders.active", this, projection -> projection.index.byId.size())
+                .description("Orders held by the active orders projection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether listings of this status can be answered from memory
+     */
+    public boolean serves(OrderStatus status) {
+        return enabled && ready && !status.isTerminal();
+    }
+
+    /**
+     * Whether active orders of a customer can be answered from memory
+     */
+    public boolean servesCustomers() {
+        return enabled && ready;
+    }
+
+    /**
+     * Up to limit orders in a status that sort after the cursor
+     */
+    List<OrderSummary> getPageByStatus(OrderStatus status, OrderCursor after, int limit) {
+        return page(index.byStatus.get(status), after, limit);
+    }
+
+    /**
+     * Every active order of one customer, newest first
+     */
+    public List<OrderSummary> getByCustomerEmail(String customerEmail) {
+        NavigableMap<OrderKey, OrderSummary> orders = index.byCustomerEmail.get(customerEmail);
+        return orders == null ? List.of() : List.copyOf(orders.values());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        apply(event.getOrder());
+    }
+
+    /**
+     * Take in the committed state of one order, here or on another node. Late and
+     * repeated changes are ignored since statuses only move forward.
+     */
+    public void apply(OrderSummary order) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (changedDuringReload != null) {
+                changedDuringReload.add(order.getOrderId());
+            }
+            if (finishedOrders.getIfPresent(order.getOrderId()) != null) {
+                return;
+            }
+            OrderSummary current = index.byId.get(order.getOrderId());
+            // Statuses only move forward, so an event for an earlier status arrived late
+            if (current != null && current.getStatus().ordinal() >= order.getStatus().ordinal()) {
+                return;
+            }
+            if (order.getStatus().isTerminal()) {
+                finishedOrders.put(order.getOrderId(), order.getStatus());
+                index.remove(order.getOrderId());
+            } else {
+                index.put(order);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to load active orders, listings are served from the database", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${nest.orders.active.refresh-interval:PT1M}",
+            fixedDelayString = "${nest.orders.active.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to refresh active orders", e);
+        }
+    }
+
+    /**
+     * Replace the projection with the active orders in the database. Orders changed
+     * by events while the query ran keep their in-memory state, which is newer.
+     */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void doReload() {
+        synchronized (writeLock) {
+            changedDuringReload = new HashSet<>();
+        }
+
+        Index loaded = new Index();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<OrderSummary> orders = orderRepository.streamByStatusIn(OrderStatus.getActiveStatuses())) {
+                    orders.forEach(loaded::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                changedDuringReload = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            Index current = index;
+            for (Long orderId : changedDuringReload) {
+                loaded.remove(orderId);
+                OrderSummary order = current.byId.get(orderId);
+                if (order != null) {
+                    loaded.put(order);
+                }
+            }
+            changedDuringReload = null;
+            index = loaded;
+            ready = true;
+        }
+        log.debug("Active orders projection loaded with {} orders", loaded.byId.size());
+    }
+
+    private static List<OrderSummary> page(NavigableMap<OrderKey, OrderSummary> orders, OrderCursor after, int limit) {
+        if (orders == null) {
+            return List.of();
+        }
+        List<OrderSummary> rows = new ArrayList<>(limit);
+        for (OrderSummary order : orders.tailMap(new OrderKey(after.createdAt(), after.orderId()), false).values()) {
+            if (rows.size() == limit) {
+                break;
+            }
+            rows.add(order);
+        }
+        return rows;
+    }
+
+    /**
+     * Sorts like the database listings: created_at, then order_id, both descending.
+     * Timestamps are cut to the database precision so orders created on this node
+     * and orders loaded from the database get the same key.
+     */
+    private record OrderKey(LocalDateTime createdAt, Long orderId) implements Comparable<OrderKey> {
+
+        OrderKey {
+            createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+        }
+
+        static OrderKey of(OrderSummary order) {
+            return new OrderKey(order.getCreatedAt(), order.getOrderId());
+        }
+
+        @Override
+        public int compareTo(OrderKey other) {
+            int byCreatedAt = other.createdAt.compareTo(createdAt);
+            return byCreatedAt != 0 ? byCreatedAt : other.orderId.compareTo(orderId);
+        }
+    }
+
+    private static class Index {
+        private final Map<Long, OrderSummary> byId = new ConcurrentHashMap<>();
+        private final Map<OrderStatus, NavigableMap<OrderKey, OrderSummary>> byStatus = new EnumMap<>(OrderStatus.class);
+        private final Map<String, NavigableMap<OrderKey, OrderSummary>> byCustomerEmail = new ConcurrentHashMap<>();
+
+        Index() {
+            OrderStatus.getActiveStatuses().forEach(status -> byStatus.put(status, new ConcurrentSkipListMap<>()));
+        }
+
+        /**
+         * Add the new state before dropping the old one, so readers never miss the order
+         */
+        void put(OrderSummary order) {
+            OrderKey key = OrderKey.of(order);
+            OrderSummary previous = byId.put(order.getOrderId(), order);
+            byStatus.get(order.getStatus()).put(key, order);
+            byCustomerEmail.computeIfAbsent(order.getCustomerEmail(), email -> new ConcurrentSkipListMap<>())
+                    .put(key, order);
+            if (previous == null) {
+                return;
+            }
+            OrderKey previousKey = OrderKey.of(previous);
+            if (previous.getStatus() != order.getStatus() || !previousKey.equals(key)) {
+                byStatus.get(previous.getStatus()).remove(previousKey);
+            }
+            if (!previousKey.equals(key) || !previous.getCustomerEmail().equals(order.getCustomerEmail())) {
+                removeFromCustomer(previous.getCustomerEmail(), previousKey);
+            }
+        }
+
+        void remove(Long orderId) {
+            OrderSummary previous = byId.remove(orderId);
+            if (previous == null) {
+                return;
+            }
+            OrderKey key = OrderKey.of(previous);
+            byStatus.get(previous.getStatus()).remove(key);
+            removeFromCustomer(previous.getCustomerEmail(), key);
+        }
+
+        private void removeFromCustomer(String customerEmail, OrderKey key) {
+            byCustomerEmail.computeIfPresent(customerEmail, (email, orders) -> {
+                orders.remove(key);
+                return orders.isEmpty() ? null : orders;
+            });
+        }
+    }
+}
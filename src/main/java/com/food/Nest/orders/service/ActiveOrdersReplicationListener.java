@@ -0,0 +1,37 @@
+package com.food.Nest.orders.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.orders.model.ActiveOrderChange;
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies order changes broadcast by other nodes to this node's active orders projection
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nest.orders.active.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ActiveOrdersReplicationListener {
+
+    private final ActiveOrdersProjection activeOrders;
+    private final ActiveOrdersReplicator replicator;
+    private final ObjectMapper objectMapper;
+
+    @SqsListener(value = "#{@activeOrdersReplicator.queueName}")
+    public void onChange(String messageJson) {
+        try {
+            ActiveOrderChange change = objectMapper.readValue(messageJson, ActiveOrderChange.class);
+            if (replicator.getNodeId().equals(change.getSourceNodeId())) {
+                return;
+            }
+            activeOrders.apply(change.toSummary());
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable active order change, reloading active orders", e);
+            activeOrders.refresh();
+        }
+    }
+}
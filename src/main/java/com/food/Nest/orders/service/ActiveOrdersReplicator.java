@@ -0,0 +1,96 @@
+package com.food.Nest.orders.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.messaging.NodeTopicQueue;
+import com.food.Nest.orders.model.ActiveOrderChange;
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import io.awspring.cloud.sns.core.SnsTemplate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Keeps the active orders projection of every node current with orders created or
+ * moved on other nodes. Committed changes are broadcast over the SNS notification
+ * topic to a queue of each node's own, which ActiveOrdersReplicationListener drains;
+ * the periodic reload of the projection remains as a backstop.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nest.orders.active.enabled", havingValue = "true", matchIfMissing = true)
+public class ActiveOrdersReplicator implements SmartInitializingSingleton {
+
+    private static final String EVENT_TYPE = "ACTIVE_ORDER_CHANGED";
+    // A change this old has been picked up by a reload of the projection anyway
+    private static final Duration MESSAGE_RETENTION = Duration.ofMinutes(5);
+
+    private final SnsTemplate snsTemplate;
+    private final ObjectMapper objectMapper;
+    private final NodeTopicQueue nodeQueue;
+
+    @Value("${aws.sns.notification-topic}")
+    private String notificationTopic;
+
+    public ActiveOrdersReplicator(SnsTemplate snsTemplate,
+                                  SnsClient snsClient,
+                                  SqsClient sqsClient,
+                                  ObjectMapper objectMapper,
+                                  @Value("${nest.orders.active.replication-queue-prefix:active-orders-}") String queuePrefix,
+                                  @Value("${nest.orders.active.replication-queue-stale-after:PT10M}") Duration staleAfter) {
+        this.snsTemplate = snsTemplate;
+        this.objectMapper = objectMapper;
+        this.nodeQueue = new NodeTopicQueue(snsClient, sqsClient, EVENT_TYPE, queuePrefix, MESSAGE_RETENTION, staleAfter);
+    }
+
+    public String getNodeId() {
+        return nodeQueue.getNodeId();
+    }
+
+    public String getQueueName() {
+        return nodeQueue.getQueueName();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        try {
+            String messageJson = objectMapper.writeValueAsString(ActiveOrderChange.of(getNodeId(), event.getOrder()));
+            snsTemplate.convertAndSend(notificationTopic, messageJson,
+                    Map.of(NodeTopicQueue.EVENT_TYPE_HEADER, EVENT_TYPE));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast change of active order: {}", event.getOrder().getOrderId(), e);
+        }
+    }
+
+    /**
+     * Subscribe once all singletons exist, before the listener container for this node's queue starts
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        nodeQueue.subscribe(notificationTopic);
+    }
+
+    /**
+     * Refresh this node's heartbeat and remove the queues of nodes whose heartbeat went stale
+     */
+    @Scheduled(initialDelayString = "${nest.orders.active.replication-queue-heartbeat:PT1M}",
+            fixedDelayString = "${nest.orders.active.replication-queue-heartbeat:PT1M}")
+    public void heartbeat() {
+        nodeQueue.heartbeat();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        nodeQueue.unsubscribe();
+    }
+}
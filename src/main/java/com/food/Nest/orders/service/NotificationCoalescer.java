@@ -0,0 +1,177 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collapses bursts of status updates for one order into a single notification.
+ * The first update of an order opens a window; updates arriving inside it replace
+ * the pending one, and only the latest status is sent when the window closes.
+ * Terminal statuses are sent right away and cancel whatever is pending.
+ * A superseded event completes at once, so its queue message is acknowledged
+ * while the event that replaced it holds its own message until it is sent.
+ * The timestamp of the last event sent for each order is remembered for a
+ * while, and events older than it are dropped, so a reordered update can never
+ * follow a newer or terminal status out to the customer.
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    private final boolean enabled;
+    private final Duration window;
+    private final ConcurrentMap<Long, PendingNotification> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, LocalDateTime> lastSent;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notification-coalescer").daemon().factory());
+    private final Counter savedSends;
+    private final Counter staleDropped;
+
+    public NotificationCoalescer(MeterRegistry meterRegistry,
+                                 @Value("${nest.notifications.coalescing.enabled:false}") boolean enabled,
+                                 @Value("${nest.notifications.coalescing.window:PT10S}") Duration window,
+                                 @Value("${nest.notifications.coalescing.sent-retention:PT10M}") Duration sentRetention) {
+        this.enabled = enabled;
+        this.window = window;
+        this.lastSent = Caffeine.newBuilder()
+                .expireAfterWrite(sentRetention)
+                .<Long, LocalDateTime>build()
+                .asMap();
+        this.savedSends = Counter.builder("notifications.coalesced")
+                .description("Notification sends saved by collapsing superseded status updates")
+                .register(meterRegistry);
+        this.staleDropped = Counter.builder("notifications.stale.dropped")
+                .description("Status updates dropped because a newer one was already sent")
+                .register(meterRegistry);
+        Gauge.builder("notifications.coalescing.pending", pending, ConcurrentMap::size)
+                .description("Orders with a notification waiting for their coalescing window to close")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hand an order event to the sender, now or once its coalescing window closes.
+     * The future completes when the event has been sent or superseded.
+     */
+    public CompletableFuture<Void> submit(OrderEvent event, Function<OrderEvent, CompletableFuture<Void>> sender) {
+        if (!enabled) {
+            return sender.apply(event);
+        }
+
+        Long orderId = event.getOrderId();
+        if (isStale(event)) {
+            staleDropped.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        if (event.getStatus().isTerminal()) {
+            recordSent(event);
+            PendingNotification superseded = pending.remove(orderId);
+            if (superseded != null) {
+                superseded.supersede();
+            }
+            return sender.apply(event);
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        pending.compute(orderId, (id, current) -> {
+            if (current == null) {
+                scheduler.schedule(() -> flush(id, sender), window.toMillis(), TimeUnit.MILLISECONDS);
+                return new PendingNotification(event, result);
+            }
+            if (isOlder(event, current.event)) {
+                savedSends.increment();
+                result.complete(null);
+                return current;
+            }
+            current.supersede();
+            return new PendingNotification(event, result);
+        });
+        return result;
+    }
+
+    private void flush(Long orderId, Function<OrderEvent, CompletableFuture<Void>> sender) {
+        PendingNotification due = pending.remove(orderId);
+        if (due == null) {
+            return;
+        }
+        if (isStale(due.event)) {
+            staleDropped.increment();
+            due.result.complete(null);
+            return;
+        }
+        recordSent(due.event);
+        try {
+            sender.apply(due.event).whenComplete((sent, e) -> {
+                if (e != null) {
+                    due.result.completeExceptionally(e);
+                } else {
+                    due.result.complete(null);
+                }
+            });
+        } catch (Exception e) {
+            due.result.completeExceptionally(e);
+        }
+    }
+
+    private boolean isStale(OrderEvent event) {
+        LocalDateTime sent = lastSent.get(event.getOrderId());
+        return sent != null && isOlder(event.getTimestamp(), sent);
+    }
+
+    private void recordSent(OrderEvent event) {
+        if (event.getTimestamp() != null) {
+            lastSent.merge(event.getOrderId(), event.getTimestamp(),
+                    (previous, sent) -> sent.isAfter(previous) ? sent : previous);
+        }
+    }
+
+    private static boolean isOlder(OrderEvent event, OrderEvent than) {
+        return isOlder(event.getTimestamp(), than.getTimestamp());
+    }
+
+    /**
+     * Standard queues may reorder messages, so the event timestamp decides which status is newer
+     */
+    private static boolean isOlder(LocalDateTime timestamp, LocalDateTime than) {
+        return timestamp != null && than != null && timestamp.isBefore(than);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (!pending.isEmpty()) {
+            log.info("Leaving {} coalesced notifications unacknowledged for redelivery", pending.size());
+        }
+    }
+
+    private final class PendingNotification {
+        private final OrderEvent event;
+        private final CompletableFuture<Void> result;
+
+        private PendingNotification(OrderEvent event, CompletableFuture<Void> result) {
+            this.event = event;
+            this.result = result;
+        }
+
+        void supersede() {
+            savedSends.increment();
+            result.complete(null);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.food.Nest.orders.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends notifications through every registered NotificationSender without
+ * blocking the caller. Each send runs on a virtual thread, and a semaphore
+ * per channel caps the number of sends in flight on that channel.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private final List<NotificationSender> senders;
+    private final Map<String, Semaphore> inFlightPermits;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public NotificationDispatcher(List<NotificationSender> senders,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${nest.notifications.max-in-flight-per-channel:50}") int maxInFlightPerChannel) {
+        this.senders = senders;
+        this.meterRegistry = meterRegistry;
+        this.inFlightPermits = senders.stream()
+                .map(NotificationSender::getChannel)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), channel -> new Semaphore(maxInFlightPerChannel)));
+    }
+
+    /**
+     * Send one message to a recipient on all channels; the future completes once every channel is done
+     */
+    public CompletableFuture<Void> dispatch(String recipient, String message) {
+        CompletableFuture<?>[] sends = senders.stream()
+                .map(sender -> CompletableFuture.runAsync(() -> send(sender, recipient, message), executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(sends);
+    }
+
+    private void send(NotificationSender sender, String recipient, String message) {
+        Semaphore permits = inFlightPermits.get(sender.getChannel());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            permits.acquire();
+            try {
+                sender.send(recipient, message);
+            } finally {
+                permits.release();
+            }
+        } catch (Exception e) {
+            outcome = "failure";
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("Failed to send " + sender.getChannel() + " notification", e);
+        } finally {
+            sample.stop(meterRegistry.timer("notifications.sent", "channel", sender.getChannel(), "outcome", outcome));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+}
@@ -0,0 +1,16 @@
+package com.food.Nest.orders.service;
+
+/**
+ * Delivers a rendered notification to a customer over one channel (email, SMS, ...).
+ * Implementations may block; NotificationDispatcher runs every send on its own
+ * virtual thread and bounds how many sends are in flight per channel.
+ */
+public interface NotificationSender {
+
+    /**
+     * Channel name used for concurrency limits and metrics
+     */
+    String getChannel();
+
+    void send(String recipient, String message) throws Exception;
+}
@@ -1,57 +1,68 @@
 package com.food.Nest.orders.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.messaging.MessageCodec;
 import com.food.Nest.orders.model.OrderEvent;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
     @Autowired
-    private final ObjectMapper objectMapper;
+    private final MessageCodec messageCodec;
 
-    @Value("${aws.sqs.notification-queue}")
-    private String notificationQueue;
+    private final NotificationDispatcher notificationDispatcher;
 
-    @SqsListener(value = "${aws.sqs.notification-queue}")
-    public void processNotificationQueue(OrderEvent orderEvent) {
-        try {
-            log.info("Received notification event: OrderId={}, EventType={}, Status={}",
-                    orderEvent.getOrderId(), orderEvent.getEventType(), orderEvent.getStatus());
+    private final NotificationCoalescer notificationCoalescer;
 
-            sendNotificationToCustomer(orderEvent);
-
-        } catch (Exception e) {
-            log.error("Failed to process notification event for OrderId: {}", orderEvent.getOrderId(), e);
-            throw new RuntimeException("Failed to process notification event", e);
-        }
-    }
+    private final OrderPipelineMetrics pipelineMetrics;
 
-    private void sendNotificationToCustomer(OrderEvent orderEvent) {
-        try {
-            String notificationMessage = generateNotificationMessage(orderEvent);
+    @Value("${aws.sqs.notification-queue}")
+    private String notificationQueue;
 
-            // Simulate sending email/SMS
-            log.info("📧 NOTIFICATION TO {}: {}", orderEvent.getCustomerEmail(), notificationMessage);
-            Thread.sleep(500);
+    @SqsListener(value = "${aws.sqs.notification-queue}",
+            maxConcurrentMessages = "${nest.notifications.listener.max-concurrent-messages:100}",
+            maxMessagesPerPoll = "${nest.notifications.listener.max-messages-per-poll:10}",
+            pollTimeoutSeconds = "${nest.notifications.listener.poll-timeout-seconds:10}")
+    public CompletableFuture<Void> processNotificationQueue(
+            @Payload String messageBody,
+            @Header(name = MessageCodec.CONTENT_TYPE_ATTRIBUTE, required = false) String contentType,
+            @Header(name = SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP, required = false) String sentTimestamp) {
+        pipelineMetrics.recordQueueWait(notificationQueue, sentTimestamp);
+        OrderEvent orderEvent = messageCodec.decode(messageBody, contentType, OrderEvent.class);
+        log.info("Received notification event: OrderId={}, EventType={}, Status={}",
+                orderEvent.getOrderId(), orderEvent.getEventType(), orderEvent.getStatus());
+
+        // The message is acknowledged only once the returned future completes successfully
+        return notificationCoalescer.submit(orderEvent, this::sendNotificationToCustomer)
+                .whenComplete((sent, e) -> {
+                    if (e != null) {
+                        log.error("Failed to process notification event for OrderId: {}", orderEvent.getOrderId(), e);
+                    }
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to send notification for OrderId: {}", orderEvent.getOrderId(), e);
-            throw new RuntimeException("Failed to send notification", e);
-        }
+    private CompletableFuture<Void> sendNotificationToCustomer(OrderEvent orderEvent) {
+        String notificationMessage = generateNotificationMessage(orderEvent);
+        return notificationDispatcher.dispatch(orderEvent.getCustomerEmail(), notificationMessage)
+                .whenComplete((sent, e) -> pipelineMetrics.recordNotification(orderEvent, e == null ? "sent" : "failed"));
     }
 
     /**
      * Generate notification message based on order event
      */
-    private String generateNotificationMessage(OrderEvent orderEvent) {
+    String generateNotificationMessage(OrderEvent orderEvent) {
         String customerName = orderEvent.getCustomerName();
         Long orderId = orderEvent.getOrderId();
 
@@ -0,0 +1,144 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.ArchivedOrderRepository.ArchiveCandidate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves delivered and cancelled orders older than the retention into the archive tables.
+ * Each run walks the finished orders oldest first in keyset batches; every batch is
+ * one short transaction that locks its orders, copies them and their items to the
+ * archive and deletes the originals, and the run pauses between batches so it never
+ * holds locks for long or competes with order traffic for the database. The same
+ * transaction adds the batch to the archived totals per status.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    private static final List<String> ARCHIVED_STATUSES = List.of(
+            OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name());
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ArchivedOrderRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxBatchesPerRun;
+    private final Counter archived;
+    private final Timer batchTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean countsSeeded;
+
+    public OrderArchiver(ArchivedOrderRepository archiveRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${nest.orders.archive.enabled:true}") boolean enabled,
+                         @Value("${nest.orders.archive.retention:P90D}") Duration retention,
+                         @Value("${nest.orders.archive.batch-size:200}") int batchSize,
+                         @Value("${nest.orders.archive.pause:PT0.5S}") Duration pause,
+                         @Value("${nest.orders.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.archived = meterRegistry.counter("orders.archived");
+        this.batchTimer = Timer.builder("orders.archive.batch")
+                .description("Time to move one batch of orders to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${nest.orders.archive.interval:PT15M}",
+            fixedDelayString = "${nest.orders.archive.interval:PT15M}")
+    public void run() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int moved = archive(LocalDateTime.now().minus(retention));
+            if (moved > 0) {
+                log.info("Archived {} finished orders", moved);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Order archive run failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Archive finished orders created and last changed before the cutoff, at most
+     * max-batches-per-run batches; returns the number of orders moved
+     */
+    int archive(LocalDateTime cutoff) throws InterruptedException {
+        if (!countsSeeded) {
+            transactionTemplate.executeWithoutResult(status -> archiveRepository.seedArchivedStatusCounts());
+            countsSeeded = true;
+        }
+        Key after = new Key(START, 0L);
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (batch > 0 && !pause.isZero()) {
+                Thread.sleep(pause);
+            }
+            Key from = after;
+            Timer.Sample sample = Timer.start();
+            BatchResult result = transactionTemplate.execute(status -> moveBatch(cutoff, from));
+            sample.stop(batchTimer);
+            if (result == null || result.moved() == 0) {
+                break;
+            }
+            moved += result.moved();
+            archived.increment(result.moved());
+            if (result.moved() < batchSize) {
+                break;
+            }
+            after = result.last();
+        }
+        return moved;
+    }
+
+    private BatchResult moveBatch(LocalDateTime cutoff, Key after) {
+        List<ArchiveCandidate> candidates = archiveRepository.lockNextArchiveBatch(
+                ARCHIVED_STATUSES, cutoff, after.createdAt(), after.orderId(), batchSize);
+        if (candidates.isEmpty()) {
+            return new BatchResult(0, after);
+        }
+        List<Long> orderIds = candidates.stream().map(ArchiveCandidate::getOrderId).toList();
+        archiveRepository.copyOrders(orderIds, LocalDateTime.now());
+        archiveRepository.countArchivedStatuses(orderIds);
+        archiveRepository.copyOrderItems(orderIds);
+        archiveRepository.deleteOrderItems(orderIds);
+        archiveRepository.deleteOrders(orderIds);
+
+        ArchiveCandidate last = candidates.get(candidates.size() - 1);
+        return new BatchResult(candidates.size(), new Key(last.getCreatedAt(), last.getOrderId()));
+    }
+
+    private record Key(LocalDateTime createdAt, Long orderId) {
+    }
+
+    private record BatchResult(int moved, Key last) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderIdempotencyKeyEntity;
+import com.food.Nest.orders.repository.OrderIdempotencyKeyRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drops redelivered order messages before they reach the write path.
+ * Keys of created orders are stored in a unique-keyed table in the order's own
+ * transaction; recently seen keys are also held in a bounded in-memory set so
+ * most redeliveries are answered without a database round trip.
+ */
+@Slf4j
+@Component
+public class OrderDeduplicator {
+
+    private final OrderIdempotencyKeyRepository keyRepository;
+    private final ReplicaRouting replicaRouting;
+    private final Cache<String, Boolean> recentKeys;
+    private final Counter hits;
+    private final Counter misses;
+    private final Duration retention;
+
+    public OrderDeduplicator(OrderIdempotencyKeyRepository keyRepository,
+                             ReplicaRouting replicaRouting,
+                             MeterRegistry meterRegistry,
+                             @Value("${nest.orders.idempotency.cache-size:100000}") long cacheSize,
+                             @Value("${nest.orders.idempotency.retention:P14D}") Duration retention) {
+        this.keyRepository = keyRepository;
+        this.replicaRouting = replicaRouting;
+        this.retention = retention;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        this.hits = meterRegistry.counter("orders.dedupe.checks", "result", "duplicate");
+        this.misses = meterRegistry.counter("orders.dedupe.checks", "result", "new");
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "orders.dedupe.keys");
+    }
+
+    /**
+     * True when an order has already been created for this idempotency key.
+     * The lookup runs on the primary so it sees keys other nodes just committed.
+     */
+    public boolean isDuplicate(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return false;
+        }
+        if (recentKeys.getIfPresent(idempotencyKey) != null
+                || replicaRouting.onPrimary(() -> keyRepository.existsById(idempotencyKey))) {
+            recentKeys.put(idempotencyKey, Boolean.TRUE);
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Store the keys of orders saved in the current transaction; they join the
+     * in-memory set once the transaction commits
+     */
+    public void recordCreated(List<OrderEntity> orders) {
+        List<OrderIdempotencyKeyEntity> keys = orders.stream()
+                .filter(order -> order.getIdempotencyKey() != null)
+                .map(order -> new OrderIdempotencyKeyEntity(order.getIdempotencyKey(), order.getOrderId()))
+                .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+        keyRepository.saveAll(keys);
+        afterCommit(() -> keys.forEach(key -> recentKeys.put(key.getIdempotencyKey(), Boolean.TRUE)));
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${nest.orders.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${nest.orders.idempotency.purge-interval:PT1H}")
+    public void purgeExpiredKeys() {
+        int purged = keyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} expired order idempotency keys", purged);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
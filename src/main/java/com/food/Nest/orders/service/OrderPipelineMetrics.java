@@ -0,0 +1,103 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderEvent;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Latency of each stage an order passes through, recorded as percentile histograms:
+ * accepting the HTTP request until the message is queued, waiting in the queue,
+ * creating the order, and a status change until its notification is sent.
+ * Each timer is described once; the providers look up the meter of a tag
+ * combination instead of building and registering it on every sample.
+ */
+@Slf4j
+@Component
+public class OrderPipelineMetrics {
+
+    private final Meter.MeterProvider<Timer> acceptTimers;
+    private final Meter.MeterProvider<Timer> queueWaitTimers;
+    private final Meter.MeterProvider<Timer> createTimers;
+    private final Meter.MeterProvider<Timer> notificationTimers;
+
+    public OrderPipelineMetrics(MeterRegistry meterRegistry) {
+        this.acceptTimers = Timer.builder("orders.pipeline.accept")
+                .description("Time from receiving an order request until it is queued")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+        this.queueWaitTimers = Timer.builder("orders.pipeline.queue.wait")
+                .description("Time from sending a message until a consumer received it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .withRegistry(meterRegistry);
+        this.createTimers = Timer.builder("orders.pipeline.create")
+                .description("Time spent creating orders from queued requests")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .withRegistry(meterRegistry);
+        this.notificationTimers = Timer.builder("orders.pipeline.notification")
+                .description("Time from an order status change until its notification is sent")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Time from receiving a new order request until it was queued, refused or failed
+     */
+    public void recordAccept(long startNanos, String outcome) {
+        acceptTimers.withTags("outcome", outcome).record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Time a message spent in a queue, from the SentTimestamp SQS attached to it
+     */
+    public void recordQueueWait(String queue, Object sentTimestamp) {
+        if (sentTimestamp == null) {
+            return;
+        }
+        try {
+            Instant sentAt = Instant.ofEpochMilli(Long.parseLong(sentTimestamp.toString()));
+            queueWaitTimers.withTags("queue", queue)
+                    .record(nonNegative(Duration.between(sentAt, Instant.now())));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring unreadable SentTimestamp: {}", sentTimestamp);
+        }
+    }
+
+    /**
+     * Time spent creating orders from received messages; one sample per call, so a batch counts once
+     */
+    public void recordCreate(long startNanos, String mode, String outcome) {
+        createTimers.withTags("mode", mode, "outcome", outcome).record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Time from a status change until the customer's notification was sent or finally failed
+     */
+    public void recordNotification(OrderEvent orderEvent, String outcome) {
+        LocalDateTime changedAt = orderEvent.getTimestamp();
+        if (changedAt == null || orderEvent.getStatus() == null) {
+            return;
+        }
+        notificationTimers.withTags("status", orderEvent.getStatus().name(), "outcome", outcome)
+                .record(nonNegative(Duration.between(changedAt, LocalDateTime.now())));
+    }
+
+    // Clocks of different nodes can disagree by a little
+    private static Duration nonNegative(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+}
@@ -0,0 +1,63 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.persistence.ReplicaRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for order reads served by replicas.
+ * Orders created or moved on this node, and their customers, are read from the
+ * primary for the configured window, whoever asks. The window has to cover the
+ * replica max-lag. Clients that caused a change themselves, possibly on another
+ * node, are also sent to the primary by ReadYourWritesFilter.
+ */
+@Component
+public class OrderReadConsistency {
+
+    private final ReplicaRouting replicaRouting;
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentCustomers;
+    private final Cache<Long, Boolean> recentOrders;
+
+    public OrderReadConsistency(ReplicaRouting replicaRouting,
+                                @Value("${nest.datasource.replica.enabled:false}") boolean enabled,
+                                @Value("${nest.datasource.replica.read-your-writes-window:PT15S}") Duration window) {
+        this.replicaRouting = replicaRouting;
+        this.enabled = enabled;
+        this.recentCustomers = Caffeine.newBuilder().expireAfterWrite(window).build();
+        this.recentOrders = Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        OrderSummary order = event.getOrder();
+        recentOrders.put(order.getOrderId(), Boolean.TRUE);
+        recentCustomers.put(order.getCustomerEmail(), Boolean.TRUE);
+    }
+
+    /**
+     * Run a read about one order, on the primary when the order changed recently
+     */
+    public <T> T readOrder(Long orderId, Supplier<T> read) {
+        return enabled && recentOrders.getIfPresent(orderId) != null ? replicaRouting.onPrimary(read) : read.get();
+    }
+
+    /**
+     * Run a read about one customer's orders, on the primary when any of them changed recently
+     */
+    public <T> T readCustomer(String customerEmail, Supplier<T> read) {
+        return enabled && recentCustomers.getIfPresent(customerEmail) != null ? replicaRouting.onPrimary(read) : read.get();
+    }
+}
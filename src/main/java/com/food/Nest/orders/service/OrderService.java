@@ -1,29 +1,50 @@
 package com.food.Nest.orders.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.food.Nest.menu.model.MenuItem;
-import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.menu.service.MenuCache;
+import com.food.Nest.messaging.MessageCodec;
+import com.food.Nest.orders.model.OrderDetail;
 import com.food.Nest.orders.model.OrderEvent;
 import com.food.Nest.orders.model.OrderItem;
 import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderPage;
 import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderStatusUpdate;
+import com.food.Nest.orders.model.OrderStatusUpdateResult;
+import com.food.Nest.orders.model.OrderSummary;
 import com.food.Nest.orders.model.entity.OrderEntity;
 import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.model.entity.OutboxEventEntity;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
 import com.food.Nest.orders.repository.OrderRepository;
-import io.awspring.cloud.sqs.operations.SqsTemplate;
+import com.food.Nest.orders.repository.OutboxEventRepository;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -31,32 +52,73 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class OrderService {
 
-    private static final String NOTIFICATION_QUEUE = "order-notification-queue";
-
     @Autowired
     private final OrderRepository orderRepository;
 
     @Autowired
-    private final MenuRepository menuRepository;
+    private final MenuCache menuCache;
 
     @Autowired
-    private final SqsTemplate sqsTemplate;
+    private final OutboxEventRepository outboxRepository;
+
+    private final MessageCodec messageCodec;
+
+    private final OrderStatisticsTracker statisticsTracker;
+
+    private final OrderDeduplicator orderDeduplicator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ActiveOrdersProjection activeOrders;
+
+    private final OrderReadConsistency readConsistency;
+
+    private final ArchivedOrderRepository archiveRepository;
+
+    @Value("${nest.orders.page.max-size:200}")
+    private int maxPageSize = 200;
 
-    private final ObjectMapper objectMapper;
+    @Value("${nest.orders.bulk.max-size:200}")
+    private int maxBulkSize = 200;
 
     public OrderEntity createOrder(OrderRequest request) {
         log.info("Creating new order for customer: {}", request.getCustomerEmail());
+        OrderEntity order = orderRepository.save(buildOrder(request));
+        orderDeduplicator.recordCreated(List.of(order));
+        statisticsTracker.recordCreated();
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(OrderSummary.from(order)));
+        return order;
+    }
+
+    /**
+     * Persist already assembled orders in one transaction so their inserts are batched
+     */
+    public List<OrderEntity> createOrders(List<OrderEntity> orders) {
+        List<OrderEntity> saved = orderRepository.saveAll(orders);
+        orderDeduplicator.recordCreated(saved);
+        orderRepository.flush();
+        for (OrderEntity order : saved) {
+            statisticsTracker.recordCreated();
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(OrderSummary.from(order)));
+        }
+        log.info("Created {} orders in one batch", saved.size());
+        return saved;
+    }
+
+    /**
+     * Validate an order request and assemble the order without persisting it.
+     * Runs outside any batch transaction so a rejected order cannot roll back the others.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OrderEntity buildOrder(OrderRequest request) {
+
+        Map<Long, MenuItem> menuItems = findMenuItems(request.getOrderItems());
 
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (OrderItemRequest itemRequest : request.getOrderItems()) {
-            MenuItem menuItem = menuRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found: " + itemRequest.getMenuItemId()));
-
-            if (!menuItem.getAvailable()) {
-                throw new RuntimeException("Menu item is not available: " + menuItem.getName());
-            }
+            MenuItem menuItem = menuItems.get(itemRequest.getMenuItemId());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setMenuItem(menuItem);
@@ -77,106 +139,309 @@ public class OrderService {
         order.setDeliveryAddress(request.getDeliveryAddress());
         order.setTotalAmount(totalAmount);
         order.setOrderItems(orderItems);
+        order.setIdempotencyKey(request.getIdempotencyKey());
 
         for (OrderItem orderItem : orderItems) {
             orderItem.setOrder(order);
         }
 
-        return orderRepository.save(order);
+        return order;
+    }
+
+    /**
+     * Resolve every menu item referenced by the order in a single lookup and
+     * report all missing or unavailable items at once
+     */
+    private Map<Long, MenuItem> findMenuItems(List<OrderItemRequest> itemRequests) {
+        Set<Long> menuItemIds = itemRequests.stream()
+                .map(OrderItemRequest::getMenuItemId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, MenuItem> menuItems = menuCache.getMenuItems(menuItemIds);
+
+        List<String> problems = new ArrayList<>();
+        for (Long menuItemId : menuItemIds) {
+            MenuItem menuItem = menuItems.get(menuItemId);
+            if (menuItem == null) {
+                problems.add("Menu item not found: " + menuItemId);
+            } else if (!menuItem.getAvailable()) {
+                problems.add("Menu item is not available: " + menuItem.getName());
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new RuntimeException("Invalid order items: " + String.join("; ", problems));
+        }
+
+        return menuItems;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderDetail> getOrder(Long orderId) {
+        Optional<OrderDetail> order = readConsistency.readOrder(orderId,
+                () -> orderRepository.findWithItemsByOrderId(orderId).map(OrderDetail::from));
+        if (order.isPresent()) {
+            return order;
+        }
+        // Finished orders may have been moved to the archive by OrderArchiver
+        return archiveRepository.findWithItemsByOrderId(orderId).map(OrderDetail::from);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderSummary> getOrderSummary(Long orderId) {
+        return readConsistency.readOrder(orderId, () -> orderRepository.findSummaryByOrderId(orderId));
     }
 
-    public Optional<OrderEntity> getOrder(Long orderId) {
-        return orderRepository.findById(orderId);
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getOrdersByCustomerEmail(String customerEmail, String cursor, int size) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int limit = pageSize(size);
+        List<OrderSummary> rows = readConsistency.readCustomer(customerEmail, () ->
+                orderRepository.findPageByCustomerEmailIncludingArchive(customerEmail, after.createdAt(), after.orderId(), limit + 1))
+                .stream().map(OrderService::toSummary).toList();
+        return toPage(rows, limit);
     }
 
-    public List<OrderEntity> getOrdersByCustomerEmail(String customerEmail) {
-        return orderRepository.findByCustomerEmailOrderByCreatedAtDesc(customerEmail);
+    /**
+     * Orders in a status, newest first. Active statuses are answered from the in-memory
+     * projection without a transaction; terminal ones go to the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OrderPage<OrderSummary> getOrdersByStatus(OrderStatus status, String cursor, int size) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int limit = pageSize(size);
+        if (activeOrders.serves(status)) {
+            return toPage(activeOrders.getPageByStatus(status, after, limit + 1), limit);
+        }
+        return toPage(orderRepository.findPageByStatus(
+                status, after.createdAt(), after.orderId(), Limit.of(limit + 1)), limit);
     }
 
-    public List<OrderEntity> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatusOrderByCreatedAtDesc(status);
+    /**
+     * Orders of a customer that are not delivered or cancelled yet, newest first
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<OrderSummary> getActiveOrdersByCustomerEmail(String customerEmail) {
+        if (activeOrders.servesCustomers()) {
+            return activeOrders.getByCustomerEmail(customerEmail);
+        }
+        return readConsistency.readCustomer(customerEmail,
+                () -> orderRepository.findActiveByCustomerEmail(customerEmail, OrderStatus.getActiveStatuses()));
     }
 
-    public List<OrderEntity> getPendingOrders() {
-        return getOrdersByStatus(OrderStatus.PENDING);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OrderPage<OrderSummary> getPendingOrders(String cursor, int size) {
+        return getOrdersByStatus(OrderStatus.PENDING, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate,
+                                                        String cursor, int size) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int limit = pageSize(size);
+        return toPage(orderRepository.findPageBetweenDates(
+                startDate, endDate, after.createdAt(), after.orderId(), Limit.of(limit + 1)), limit);
+    }
+
+    /**
+     * Stream every order in a status through a database cursor as unmanaged summaries,
+     * so memory stays flat however many orders match
+     */
+    @Transactional(readOnly = true)
+    public void streamOrdersByStatus(OrderStatus status, Consumer<OrderSummary> consumer) {
+        try (Stream<OrderSummary> orders = orderRepository.streamByStatus(status)) {
+            orders.forEach(consumer);
+        }
     }
 
+    /**
+     * Stream every order created between two dates through a database cursor
+     */
+    @Transactional(readOnly = true)
+    public void streamOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate,
+                                         Consumer<OrderSummary> consumer) {
+        try (Stream<OrderSummary> orders = orderRepository.streamBetweenDates(startDate, endDate)) {
+            orders.forEach(consumer);
+        }
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    /**
+     * Pages are fetched with one extra row to learn whether another page follows
+     */
+    private static OrderPage<OrderSummary> toPage(List<OrderSummary> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new OrderPage<>(rows, null);
+        }
+        List<OrderSummary> page = rows.subList(0, limit);
+        return new OrderPage<>(List.copyOf(page), OrderCursor.encode(page.get(limit - 1)));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public OrderStatistics getOrderStatistics() {
         OrderStatistics stats = new OrderStatistics();
-        stats.setPendingCount(orderRepository.countByStatus(OrderStatus.PENDING));
-        stats.setConfirmedCount(orderRepository.countByStatus(OrderStatus.CONFIRMED));
-        stats.setPreparingCount(orderRepository.countByStatus(OrderStatus.PREPARING));
-        stats.setReadyCount(orderRepository.countByStatus(OrderStatus.READY));
-        stats.setOutForDeliveryCount(orderRepository.countByStatus(OrderStatus.OUT_FOR_DELIVERY));
-        stats.setDeliveredCount(orderRepository.countByStatus(OrderStatus.DELIVERED));
-        stats.setCancelledCount(orderRepository.countByStatus(OrderStatus.CANCELLED));
+        stats.setPendingCount(statisticsTracker.getCount(OrderStatus.PENDING));
+        stats.setConfirmedCount(statisticsTracker.getCount(OrderStatus.CONFIRMED));
+        stats.setPreparingCount(statisticsTracker.getCount(OrderStatus.PREPARING));
+        stats.setReadyCount(statisticsTracker.getCount(OrderStatus.READY));
+        stats.setOutForDeliveryCount(statisticsTracker.getCount(OrderStatus.OUT_FOR_DELIVERY));
+        stats.setDeliveredCount(statisticsTracker.getCount(OrderStatus.DELIVERED));
+        stats.setCancelledCount(statisticsTracker.getCount(OrderStatus.CANCELLED));
 
         return stats;
     }
 
-    public OrderEntity updateOrderStatus(Long orderId, OrderStatus newStatus) {
-        OrderEntity order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+    /**
+     * Move an order along its state machine with one conditional update.
+     * Fails with OrderStatusConflictException when the order is not in a status
+     * the requested one can be reached from, including when a concurrent update won.
+     */
+    public OrderSummary updateOrderStatus(Long orderId, OrderStatus newStatus) {
+        List<OrderRepository.StatusTransition> applied = transition(List.of(orderId), newStatus);
+        if (applied.isEmpty()) {
+            throw transitionFailure(orderId, newStatus);
+        }
+        recordTransitions(applied);
+        return toSummary(applied.get(0));
+    }
 
-        OrderStatus oldStatus = order.getStatus();
-        order.setStatus(newStatus);
-
-        switch (newStatus) {
-            case CONFIRMED:
-                order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(40));
-                break;
-            case PREPARING:
-                order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(25));
-                break;
-            case READY:
-                order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(15));
-                break;
-            case OUT_FOR_DELIVERY:
-                order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(10));
-                break;
-            case CANCELLED:
-            case DELIVERED:
-                order.setEstimatedDeliveryTime(null);
-                break;
-            default:
-                break;
-        }
-
-        OrderEntity updatedOrder = orderRepository.save(order);
-        log.info("Order {} status updated from {} to {}", orderId, oldStatus, newStatus);
-
-        OrderEvent orderEvent = new OrderEvent(
-                order.getOrderId(),
-                order.getStatus(),
-                LocalDateTime.now(),
-                order.getCustomerEmail(),
-                order.getCustomerName(),
-                "ORDER_STATUS_UPDATED"
-        );
-
-        try {
-            String messageJson = objectMapper.writeValueAsString(orderEvent);
-            sqsTemplate.send(NOTIFICATION_QUEUE, messageJson);
-            log.info("Order status update event sent to queue: {}", NOTIFICATION_QUEUE);
-        } catch (Exception e) {
-            log.error("Failed to send order status update event to queue: {}", NOTIFICATION_QUEUE, e);
-            throw new RuntimeException("Failed to send order status update event", e);
-        }
-
-        return updatedOrder;
-    }
-
-    public OrderEntity cancelOrder(Long orderId) {
-        OrderEntity order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+    /**
+     * Apply many status changes in one transaction with one update statement per target status.
+     * When several target statuses are involved every order is locked up front in id order.
+     * Each order gets its own result; orders that cannot move do not affect the others.
+     */
+    public List<OrderStatusUpdateResult> updateOrderStatuses(List<OrderStatusUpdate> updates) {
+        if (updates.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " status updates are allowed per request");
+        }
 
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new RuntimeException("Cannot cancel order in status: " + order.getStatus());
+        Map<OrderStatus, List<Long>> orderIdsByStatus = new EnumMap<>(OrderStatus.class);
+        Set<Long> requestedIds = new LinkedHashSet<>();
+        for (OrderStatusUpdate update : updates) {
+            if (requestedIds.add(update.getOrderId())) {
+                orderIdsByStatus.computeIfAbsent(update.getStatus(), status -> new ArrayList<>()).add(update.getOrderId());
+            }
         }
 
+        if (orderIdsByStatus.size() > 1) {
+            // Statements run per target status would otherwise lock rows in an order that depends
+            // on the request, and two bulk updates could deadlock on each other
+            orderRepository.lockByOrderIdIn(requestedIds);
+        }
+        List<OrderRepository.StatusTransition> applied = new ArrayList<>();
+        orderIdsByStatus.forEach((status, orderIds) -> applied.addAll(transition(orderIds, status)));
+        recordTransitions(applied);
+
+        Map<Long, OrderRepository.StatusTransition> appliedById = applied.stream()
+                .collect(Collectors.toMap(OrderRepository.StatusTransition::getOrderId, transition -> transition));
+        List<Long> failedIds = requestedIds.stream().filter(id -> !appliedById.containsKey(id)).toList();
+        Map<Long, OrderStatus> currentStatuses = failedIds.isEmpty() ? Map.of()
+                : orderRepository.findStatusesByOrderIdIn(failedIds).stream()
+                .collect(Collectors.toMap(OrderRepository.OrderStatusView::getOrderId,
+                        OrderRepository.OrderStatusView::getStatus));
+
+        List<OrderStatusUpdateResult> results = new ArrayList<>(updates.size());
+        Set<Long> reported = new HashSet<>();
+        for (OrderStatusUpdate update : updates) {
+            Long orderId = update.getOrderId();
+            OrderRepository.StatusTransition transition = appliedById.get(orderId);
+            if (!reported.add(orderId)) {
+                results.add(OrderStatusUpdateResult.failed(orderId, update.getStatus(),
+                        OrderStatusUpdateResult.Outcome.REJECTED, "Order appears more than once in the request"));
+            } else if (transition != null) {
+                results.add(OrderStatusUpdateResult.updated(update.getStatus(), toSummary(transition)));
+            } else if (!currentStatuses.containsKey(orderId)) {
+                results.add(OrderStatusUpdateResult.failed(orderId, update.getStatus(),
+                        OrderStatusUpdateResult.Outcome.NOT_FOUND, "Order not found: " + orderId));
+            } else {
+                results.add(OrderStatusUpdateResult.failed(orderId, update.getStatus(),
+                        OrderStatusUpdateResult.Outcome.CONFLICT,
+                        new OrderStatusConflictException(orderId, currentStatuses.get(orderId), update.getStatus()).getMessage()));
+            }
+        }
+        log.info("Bulk status update applied {} of {} changes", applied.size(), updates.size());
+        return results;
+    }
+
+    private List<OrderRepository.StatusTransition> transition(Collection<Long> orderIds, OrderStatus newStatus) {
+        List<String> fromStatuses = newStatus.getPredecessors().stream().map(OrderStatus::name).toList();
+        if (fromStatuses.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.transitionStatuses(orderIds, newStatus.name(), fromStatuses,
+                estimatedDeliveryTime(newStatus), LocalDateTime.now());
+    }
+
+    /**
+     * Update the status counters and queue one notification event per applied transition.
+     * The events are published by OutboxRelay once this transaction commits, and live
+     * subscribers are told through OrderStatusBroadcaster at the same point.
+     */
+    private void recordTransitions(List<OrderRepository.StatusTransition> applied) {
+        List<OutboxEventEntity> events = new ArrayList<>(applied.size());
+        for (OrderRepository.StatusTransition transition : applied) {
+            statisticsTracker.recordTransition(transition.getPreviousStatus(), transition.getStatus());
+            log.info("Order {} status updated from {} to {}",
+                    transition.getOrderId(), transition.getPreviousStatus(), transition.getStatus());
+
+            OrderEvent orderEvent = new OrderEvent(
+                    transition.getOrderId(),
+                    transition.getStatus(),
+                    LocalDateTime.now(),
+                    transition.getCustomerEmail(),
+                    transition.getCustomerName(),
+                    "ORDER_STATUS_UPDATED"
+            );
+
+            try {
+                events.add(new OutboxEventEntity(transition.getOrderId(), transition.getVersion(), orderEvent.getEventType(),
+                        messageCodec.encode(orderEvent), messageCodec.getFormat().getContentType()));
+            } catch (Exception e) {
+                log.error("Failed to record order status update event for order: {}", transition.getOrderId(), e);
+                throw new RuntimeException("Failed to record order status update event", e);
+            }
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(toSummary(transition)));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    private static OrderSummary toSummary(OrderRepository.OrderSummaryRow row) {
+        return new OrderSummary(row.getOrderId(), row.getCustomerName(), row.getCustomerEmail(), row.getStatus(),
+                row.getTotalAmount(), row.getCreatedAt(), row.getUpdatedAt(), row.getEstimatedDeliveryTime());
+    }
+
+    private static OrderSummary toSummary(OrderRepository.StatusTransition transition) {
+        return new OrderSummary(transition.getOrderId(), transition.getCustomerName(), transition.getCustomerEmail(),
+                transition.getStatus(), transition.getTotalAmount(), transition.getCreatedAt(),
+                transition.getUpdatedAt(), transition.getEstimatedDeliveryTime());
+    }
+
+    public OrderSummary cancelOrder(Long orderId) {
         return updateOrderStatus(orderId, OrderStatus.CANCELLED);
     }
 
+    /**
+     * Tell a missing order apart from one in the wrong status; only runs when a transition did not apply
+     */
+    private RuntimeException transitionFailure(Long orderId, OrderStatus newStatus) {
+        OrderStatus currentStatus = orderRepository.findStatusByOrderId(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        return new OrderStatusConflictException(orderId, currentStatus, newStatus);
+    }
+
+    private static LocalDateTime estimatedDeliveryTime(OrderStatus status) {
+        return switch (status) {
+            case CONFIRMED -> LocalDateTime.now().plusMinutes(40);
+            case PREPARING -> LocalDateTime.now().plusMinutes(25);
+            case READY -> LocalDateTime.now().plusMinutes(15);
+            case OUT_FOR_DELIVERY -> LocalDateTime.now().plusMinutes(10);
+            default -> null;
+        };
+    }
+
     @Setter
     @Getter
     public static class OrderStatistics {
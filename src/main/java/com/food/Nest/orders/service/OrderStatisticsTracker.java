@@ -0,0 +1,160 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory order counts per status.
+ * Loaded with one GROUP BY query, then adjusted on every committed order
+ * transition and periodically reconciled against the database to correct drift.
+ * Changes committed while the reconcile query runs are kept on top of its
+ * result, and only one load or reconcile runs at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatisticsTracker {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+
+    // Adjustments made since the running reconcile started its query; null outside a reconcile
+    private volatile AtomicLongArray sinceQuery;
+
+    // Adjustments hold the read lock so the reconcile can swap in its result between two of them
+    private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
+
+    private final Lock reconcileLock = new ReentrantLock();
+
+    private volatile boolean loaded;
+
+    /**
+     * Count a newly created order once its transaction commits
+     */
+    public void recordCreated() {
+        afterCommit(() -> adjust(null, OrderStatus.PENDING));
+    }
+
+    /**
+     * Move one order between status counters once its transaction commits
+     */
+    public void recordTransition(OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> adjust(from, to));
+    }
+
+    public long getCount(OrderStatus status) {
+        if (!loaded) {
+            load();
+        }
+        return counts.get(status.ordinal());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Failed to load order statistics", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${nest.orders.statistics.reconcile-interval:PT5M}",
+            fixedDelayString = "${nest.orders.statistics.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            AtomicLongArray adjustments = new AtomicLongArray(STATUSES.length);
+            sinceQuery = adjustments;
+            long[] actual = new long[STATUSES.length];
+            try {
+                for (OrderRepository.StatusCount statusCount : orderRepository.countGroupedByStatus()) {
+                    actual[statusCount.getStatus().ordinal()] = statusCount.getCount();
+                }
+            } catch (RuntimeException e) {
+                sinceQuery = null;
+                throw e;
+            }
+
+            updateLock.writeLock().lock();
+            try {
+                for (OrderStatus status : STATUSES) {
+                    int index = status.ordinal();
+                    long reconciled = actual[index] + adjustments.get(index);
+                    long previous = counts.getAndSet(index, reconciled);
+                    if (loaded && previous != reconciled) {
+                        log.info("Reconciled {} order count from {} to {}", status, previous, reconciled);
+                    }
+                }
+                sinceQuery = null;
+            } finally {
+                updateLock.writeLock().unlock();
+            }
+            loaded = true;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void load() {
+        reconcileLock.lock();
+        try {
+            if (!loaded) {
+                reconcile();
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void adjust(OrderStatus from, OrderStatus to) {
+        updateLock.readLock().lock();
+        try {
+            AtomicLongArray adjustments = sinceQuery;
+            if (from != null) {
+                counts.decrementAndGet(from.ordinal());
+                if (adjustments != null) {
+                    adjustments.decrementAndGet(from.ordinal());
+                }
+            }
+            counts.incrementAndGet(to.ordinal());
+            if (adjustments != null) {
+                adjustments.incrementAndGet(to.ordinal());
+            }
+        } finally {
+            updateLock.readLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
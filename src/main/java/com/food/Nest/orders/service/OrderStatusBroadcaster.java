@@ -0,0 +1,289 @@
+package com.food.Nest.orders.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Pushes committed order status changes to Server-Sent Events subscribers on this node.
+ * Clients subscribe to one order or to every order of a customer. Each event is
+ * serialized once and queued to every subscriber in id order; a subscriber's queue is
+ * drained by one virtual thread at a time, so a slow client never holds up the
+ * transaction that produced the event and never sees events out of order. Recent events
+ * are kept in a ring buffer, letting a reconnecting client resume from its Last-Event-ID.
+ */
+@Slf4j
+@Component
+public class OrderStatusBroadcaster {
+
+    private static final String EVENT_NAME = "order-status";
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final Map<Long, Set<Subscriber>> byOrderId = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byCustomerEmail = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final BroadcastEvent[] replayBuffer;
+    // Starts at the boot time so ids keep increasing across restarts
+    private final long firstSequence = System.currentTimeMillis() + 1;
+    private long sequence = firstSequence - 1;
+
+    public OrderStatusBroadcaster(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${nest.orders.live.timeout:PT30M}") Duration timeout,
+                                  @Value("${nest.orders.live.replay-buffer-size:10000}") int replayBufferSize) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.replayBuffer = new BroadcastEvent[replayBufferSize];
+        Gauge.builder("orders.live.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order status event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stream status changes of one order, starting with its current state or with whatever
+     * was missed since lastEventId. The subscription is registered before the current state
+     * is loaded, so a change committed in between is delivered instead of lost; changes the
+     * loaded state already reflects are skipped. Empty when the order does not exist.
+     */
+    public Optional<SseEmitter> subscribeToOrder(Long orderId, String lastEventId,
+                                                 Supplier<Optional<OrderSummary>> currentState) {
+        return subscribe(byOrderId, orderId, lastEventId, currentState,
+                event -> event.order().getOrderId().equals(orderId));
+    }
+
+    /**
+     * Stream status changes of every order of one customer
+     */
+    public SseEmitter subscribeToCustomer(String customerEmail, String lastEventId) {
+        return subscribe(byCustomerEmail, customerEmail, lastEventId, null,
+                event -> customerEmail.equals(event.order().getCustomerEmail())).orElseThrow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent changed) {
+        OrderSummary order = changed.getOrder();
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize status change of order: {}", order.getOrderId(), e);
+            return;
+        }
+        // Numbering and queueing under one lock keeps every subscriber's queue in id order
+        synchronized (this) {
+            BroadcastEvent event = new BroadcastEvent(++sequence, order, json);
+            replayBuffer[(int) (event.id() % replayBuffer.length)] = event;
+            enqueue(byOrderId.get(order.getOrderId()), event);
+            enqueue(byCustomerEmail.get(order.getCustomerEmail()), event);
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect clients that went away
+     */
+    @Scheduled(fixedDelayString = "${nest.orders.live.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        SseEmitter.SseEventBuilder heartbeat = SseEmitter.event().comment("heartbeat");
+        for (Map<?, Set<Subscriber>> registry : List.of(byOrderId, byCustomerEmail)) {
+            registry.values().forEach(subscribers -> subscribers.forEach(subscriber -> executor.execute(() -> {
+                try {
+                    subscriber.emitter.send(heartbeat);
+                } catch (IOException | IllegalStateException e) {
+                    subscriber.emitter.completeWithError(e);
+                }
+            })));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Map<?, Set<Subscriber>> registry : List.of(byOrderId, byCustomerEmail)) {
+            registry.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        }
+        executor.close();
+    }
+
+    private <K> Optional<SseEmitter> subscribe(Map<K, Set<Subscriber>> registry, K key, String lastEventId,
+                                               Supplier<Optional<OrderSummary>> currentState,
+                                               Predicate<BroadcastEvent> matches) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        Runnable unsubscribe = () -> registry.computeIfPresent(key, (k, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // Registering and reading the replay buffer under the broadcast lock puts every event
+        // either in the replayed list or in the subscriber's queue, never in both or neither
+        List<BroadcastEvent> missed;
+        synchronized (this) {
+            registry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            subscriberCount.incrementAndGet();
+            missed = lastEventId == null ? null : missedSince(lastEventId, matches);
+        }
+
+        OrderSummary current = null;
+        if (currentState != null) {
+            Optional<OrderSummary> loaded = currentState.get();
+            if (loaded.isEmpty()) {
+                unsubscribe.run();
+                return Optional.empty();
+            }
+            current = loaded.get();
+        }
+        try {
+            if (missed != null) {
+                for (BroadcastEvent event : missed) {
+                    emitter.send(toSse(event));
+                }
+                subscriber.start(null);
+            } else if (current != null) {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(objectMapper.writeValueAsString(current)));
+                subscriber.start(current.getUpdatedAt());
+            } else {
+                subscriber.start(null);
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return Optional.of(emitter);
+    }
+
+    private static void enqueue(Set<Subscriber> subscribers, BroadcastEvent event) {
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.enqueue(event));
+        }
+    }
+
+    /**
+     * Matching events after the given id, or null when the id is unknown or already
+     * evicted from the buffer and the client has to start from the current state
+     */
+    private List<BroadcastEvent> missedSince(String lastEventId, Predicate<BroadcastEvent> matches) {
+        long since;
+        try {
+            since = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(sequence - replayBuffer.length + 1, firstSequence);
+        if (since > sequence || since < oldest - 1) {
+            return null;
+        }
+        return LongStream.rangeClosed(since + 1, sequence)
+                .mapToObj(id -> replayBuffer[(int) (id % replayBuffer.length)])
+                .filter(event -> event != null && matches.test(event))
+                .toList();
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(BroadcastEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.id()))
+                .name(EVENT_NAME)
+                .data(event.json());
+    }
+
+    private record BroadcastEvent(long id, OrderSummary order, String json) {
+    }
+
+    /**
+     * One open stream with its own queue. Sends start once the replayed or current state has
+     * been written, and only one drain task runs at a time so events go out in queue order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<BroadcastEvent> queue = new ConcurrentLinkedQueue<>();
+        // Held until start() so nothing overtakes the initial state
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        private volatile LocalDateTime seenUpTo;
+        private volatile boolean failed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Begin sending queued events, skipping those not newer than the state already sent
+         */
+        private void start(LocalDateTime seenUpTo) {
+            this.seenUpTo = seenUpTo;
+            draining.set(false);
+            scheduleDrain();
+        }
+
+        private void enqueue(BroadcastEvent event) {
+            queue.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                BroadcastEvent event;
+                while ((event = queue.poll()) != null) {
+                    if (!failed && isNew(event)) {
+                        send(event);
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean isNew(BroadcastEvent event) {
+            LocalDateTime updatedAt = event.order().getUpdatedAt();
+            return seenUpTo == null || updatedAt == null || updatedAt.isAfter(seenUpTo);
+        }
+
+        private void send(BroadcastEvent event) {
+            try {
+                emitter.send(toSse(event));
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import lombok.Getter;
+
+/**
+ * An order could not be moved to the requested status from the status it is in
+ */
+@Getter
+public class OrderStatusConflictException extends RuntimeException {
+
+    private final Long orderId;
+    private final OrderStatus currentStatus;
+    private final OrderStatus requestedStatus;
+
+    public OrderStatusConflictException(Long orderId, OrderStatus currentStatus, OrderStatus requestedStatus) {
+        super("Order " + orderId + " cannot move from " + currentStatus + " to " + requestedStatus);
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+}
@@ -0,0 +1,191 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.messaging.MessageCodec;
+import com.food.Nest.orders.model.entity.OutboxDeadLetterEntity;
+import com.food.Nest.orders.model.entity.OutboxEventEntity;
+import com.food.Nest.orders.repository.OutboxDeadLetterRepository;
+import com.food.Nest.orders.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to the notification queue.
+ * Each run locks a batch of due events, publishes them with SendMessageBatch,
+ * deletes what was sent and reschedules the rest with exponential backoff.
+ * An event that still fails after max-attempts is moved to the dead-letter
+ * table, so it no longer holds back the later events of its order.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_BATCH_ENTRIES = 10;
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final Counter failed;
+    private final Counter deadLettered;
+    private final Timer publishLag;
+    private final AtomicLong oldestEventAgeMillis = new AtomicLong();
+
+    @Value("${aws.sqs.notification-queue}")
+    private String notificationQueue;
+
+    @Value("${nest.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${nest.outbox.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+
+    @Value("${nest.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    private volatile String queueUrl;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       OutboxDeadLetterRepository deadLetterRepository,
+                       SqsAsyncClient sqsAsyncClient,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.published = meterRegistry.counter("outbox.events.published");
+        this.failed = meterRegistry.counter("outbox.events.failed");
+        this.deadLettered = meterRegistry.counter("outbox.events.dead.lettered");
+        this.publishLag = Timer.builder("outbox.publish.lag")
+                .description("Time from status change commit to publication")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.event.age", oldestEventAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${nest.outbox.poll-interval:PT0.2S}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed >= batchSize);
+            updateLag();
+        } catch (Exception e) {
+            log.error("Outbox relay run failed", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEventEntity> events = outboxRepository.lockNextBatch(LocalDateTime.now(), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        String url = resolveQueueUrl();
+        List<CompletableFuture<SendMessageBatchResponse>> sends = new ArrayList<>();
+        for (int start = 0; start < events.size(); start += MAX_BATCH_ENTRIES) {
+            List<OutboxEventEntity> chunk = events.subList(start, Math.min(start + MAX_BATCH_ENTRIES, events.size()));
+            List<SendMessageBatchRequestEntry> entries = chunk.stream()
+                    .map(event -> SendMessageBatchRequestEntry.builder()
+                            .id(event.getId().toString())
+                            .messageBody(event.getPayload())
+                            .messageAttributes(event.getContentType() == null
+                                    ? Map.of()
+                                    : MessageCodec.messageAttributes(event.getContentType()))
+                            .build())
+                    .toList();
+            sends.add(sqsAsyncClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(url)
+                    .entries(entries)
+                    .build()));
+        }
+
+        Set<Long> sentIds = new HashSet<>();
+        Map<Long, String> errors = new HashMap<>();
+        for (CompletableFuture<SendMessageBatchResponse> send : sends) {
+            try {
+                SendMessageBatchResponse response = send.join();
+                response.successful().forEach(entry -> sentIds.add(Long.valueOf(entry.id())));
+                response.failed().forEach(entry -> errors.put(Long.valueOf(entry.id()), entry.code() + ": " + entry.message()));
+            } catch (Exception e) {
+                log.warn("Failed to publish outbox batch to queue: {}", notificationQueue, e);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEventEntity> sent = new ArrayList<>();
+        List<OutboxEventEntity> givenUp = new ArrayList<>();
+        for (OutboxEventEntity event : events) {
+            if (sentIds.contains(event.getId())) {
+                sent.add(event);
+                publishLag.record(Duration.between(event.getCreatedAt(), now));
+            } else {
+                int attempts = event.getAttempts() + 1;
+                event.setAttempts(attempts);
+                event.setNextAttemptAt(now.plus(backoff(attempts)));
+                failed.increment();
+                if (attempts >= maxAttempts) {
+                    String error = errors.get(event.getId());
+                    log.error("Moving outbox event {} of order {} to the dead-letter table after {} attempts, last error: {}",
+                            event.getId(), event.getOrderId(), attempts, error);
+                    deadLetterRepository.save(OutboxDeadLetterEntity.from(event, now, error));
+                    givenUp.add(event);
+                }
+            }
+        }
+        outboxRepository.deleteAllInBatch(sent);
+        outboxRepository.deleteAllInBatch(givenUp);
+        published.increment(sent.size());
+        deadLettered.increment(givenUp.size());
+
+        if (sent.size() < events.size()) {
+            log.warn("Published {} of {} outbox events, the rest will be retried", sent.size(), events.size());
+        }
+        return events.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private void updateLag() {
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        oldestEventAgeMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    private String resolveQueueUrl() {
+        if (queueUrl == null) {
+            queueUrl = sqsAsyncClient.getQueueUrl(builder -> builder.queueName(notificationQueue)).join().queueUrl();
+        }
+        return queueUrl;
+    }
+}
@@ -0,0 +1,34 @@
+package com.food.Nest.orders.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Stand-in for a real email provider: logs the notification and waits for the configured latency
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nest.notifications.simulated.enabled", havingValue = "true", matchIfMissing = true)
+public class SimulatedNotificationSender implements NotificationSender {
+
+    private final Duration latency;
+
+    public SimulatedNotificationSender(@Value("${nest.notifications.simulated.latency:500ms}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public String getChannel() {
+        return "email";
+    }
+
+    @Override
+    public void send(String recipient, String message) throws InterruptedException {
+        log.info("📧 NOTIFICATION TO {}: {}", recipient, message);
+        Thread.sleep(latency);
+    }
+}
@@ -60,6 +60,10 @@ public class SqsService {
         return CompletableFuture.completedFuture(null);
     }
 
+    public String getQueueUrl(String queueName) {
+        return sqsClient.getQueueUrl(builder -> builder.queueName(queueName)).queueUrl();
+    }
+
     public int getQueueMessageCount(String queueUrl) {
         try {
             GetQueueAttributesRequest request = GetQueueAttributesRequest.builder()
@@ -0,0 +1,64 @@
+package com.food.Nest.persistence;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Moves the id sequences past the ids already in their tables before anything is inserted.
+ * Orders and order items were numbered by IDENTITY columns before they moved to
+ * pooled sequences; on a database holding rows from that time ddl-auto creates
+ * the sequences at 1, and the first inserts would collide with existing ids.
+ * Sequences only ever move forward, and a failure stops the application from
+ * starting rather than letting it insert duplicate ids.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner {
+
+    static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("orders_seq", "orders", "order_id"),
+            new IdSequence("order_items_seq", "order_items", "id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void align() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.debug("Not aligning id sequences on {}", database);
+            return;
+        }
+        for (IdSequence sequence : SEQUENCES) {
+            align(sequence);
+        }
+    }
+
+    private void align(IdSequence sequence) {
+        // With increment 50 the pooled optimizer hands out last_value + 1 onwards after the next nextval
+        List<Long> advancedTo = jdbcTemplate.queryForList(
+                "SELECT setval('" + sequence.name() + "', ids.max_id) FROM (SELECT MAX(" + sequence.column()
+                        + ") AS max_id FROM " + sequence.table() + ") ids "
+                        + "WHERE ids.max_id >= (SELECT last_value FROM " + sequence.name() + ")",
+                Long.class);
+        if (!advancedTo.isEmpty()) {
+            log.info("Advanced sequence {} past the existing ids of {} to {}",
+                    sequence.name(), sequence.table(), advancedTo.get(0));
+        }
+    }
+
+    record IdSequence(String name, String table, String column) {
+    }
+}
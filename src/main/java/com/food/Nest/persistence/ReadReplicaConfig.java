@@ -0,0 +1,75 @@
+package com.food.Nest.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to read replicas.
+ * Replaces Boot's single pool with ReplicaDataSource behind a lazy proxy. The
+ * proxy only takes a connection at a transaction's first statement, once the
+ * transaction is known to be read-only, so ReplicaDataSource can route it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "nest.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Zero while the replica has replayed everything it received, so an idle primary does not look like lag
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery()"
+            + " OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               DataSourceProperties properties,
+                                               ReplicaRouting replicaRouting,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${nest.datasource.replica.urls}") List<String> urls,
+                                               @Value("${nest.datasource.replica.username:${spring.datasource.username}}") String username,
+                                               @Value("${nest.datasource.replica.password:${spring.datasource.password}}") String password,
+                                               @Value("${nest.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                               @Value("${nest.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                               @Value("${nest.datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(maximumPoolSize);
+            config.setReadOnly(true);
+            // Start even while a replica is down; reads fall back to the primary
+            config.setInitializationFailTimeout(-1);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, replicaRouting, meterRegistry, maxLag, lagQuery);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaDataSource);
+    }
+}
@@ -0,0 +1,84 @@
+package com.food.Nest.persistence;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes across nodes. A request that may write marks its client with a
+ * cookie holding the time until which the client's reads must see the primary, and
+ * a request carrying an unexpired marker reads from the primary on whichever node it
+ * lands. Writes finished elsewhere, like orders the queue consumer creates on another
+ * node, are covered as long as the window spans their queue wait and the replica lag.
+ */
+@Component
+@ConditionalOnProperty(name = "nest.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "nest-primary-until";
+
+    private static final Set<String> READ_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final ReplicaRouting replicaRouting;
+    private final Duration window;
+
+    public ReadYourWritesFilter(ReplicaRouting replicaRouting,
+                                @Value("${nest.datasource.replica.client-marker-window:PT45S}") Duration window) {
+        this.replicaRouting = replicaRouting;
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (!READ_METHODS.contains(request.getMethod())) {
+            // Set before the chain runs, while the response headers can still be written
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, Long.toString(now + window.toMillis()))
+                    .path("/")
+                    .maxAge(window)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+        if (primaryUntil(request) <= now) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (ReplicaRouting.Scope ignored = replicaRouting.primaryScope()) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.food.Nest.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes each connection by the transaction it is taken for.
+ * Read-only transactions, including read-only SUPPORTS methods running without
+ * one, get a replica; replicas take turns, and one whose lag is above max-lag,
+ * or unknown because the last check or connection attempt failed, is skipped
+ * until a later check finds it caught up. Everything else, reads no replica
+ * qualifies for, and reads ReplicaRouting keeps on the primary use the primary.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaRouting routing;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    /**
+     * @param replicas  replica data sources by name, in a stable order
+     * @param lagQuery  query returning one row with the replica's lag in seconds
+     */
+    public ReplicaDataSource(DataSource primary,
+                             Map<String, DataSource> replicas,
+                             ReplicaRouting routing,
+                             MeterRegistry meterRegistry,
+                             Duration maxLag,
+                             String lagQuery) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.routing = routing;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery;
+        this.replicaReads = Counter.builder("datasource.reads")
+                .description("Connections taken for read-only work")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("datasource.reads")
+                .description("Connections taken for read-only work")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag of the replica at the last check; NaN when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        if (!routing.isPrimaryRequired()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.isUsable(maxLagSeconds)) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("Failed to connect to replica {}, skipping it until the next lag check", replica.name, e);
+                    replica.lagSeconds = Double.NaN;
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Explicit credentials are the primary's; replicas only accept their configured ones
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Measure every replica's lag; until the first check succeeds reads stay on the primary
+     */
+    @Scheduled(fixedDelayString = "${nest.datasource.replica.check-interval:PT5S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(lagQuery)) {
+                double lag = result.next() ? result.getDouble(1) : Double.NaN;
+                if (lag > maxLagSeconds && replica.isUsable(maxLagSeconds)) {
+                    log.warn("Replica {} is {}s behind, reading from other replicas or the primary", replica.name, lag);
+                }
+                replica.lagSeconds = lag;
+            } catch (SQLException e) {
+                log.warn("Failed to check lag of replica {}", replica.name, e);
+                replica.lagSeconds = Double.NaN;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        // NaN compares false, so a replica of unknown lag is never used
+        boolean isUsable(double maxLagSeconds) {
+            return lagSeconds <= maxLagSeconds;
+        }
+    }
+}
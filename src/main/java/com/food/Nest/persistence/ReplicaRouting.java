@@ -0,0 +1,48 @@
+package com.food.Nest.persistence;
+
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps read-only work on the primary for code that must see the latest commit.
+ * Read-only transactions normally go to a replica; work run through onPrimary
+ * gets a primary connection instead. The connection of a transaction is chosen
+ * at its first statement, so onPrimary has to wrap that statement.
+ */
+@Component
+public class ReplicaRouting {
+
+    private final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    public <T> T onPrimary(Supplier<T> work) {
+        try (Scope ignored = primaryScope()) {
+            return work.get();
+        }
+    }
+
+    /**
+     * Keep this thread's reads on the primary until the scope is closed, for work that
+     * does not fit in a Supplier, such as the rest of a request
+     */
+    public Scope primaryScope() {
+        Boolean previous = primaryRequired.get();
+        primaryRequired.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                primaryRequired.remove();
+            } else {
+                primaryRequired.set(previous);
+            }
+        };
+    }
+
+    public boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(primaryRequired.get());
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
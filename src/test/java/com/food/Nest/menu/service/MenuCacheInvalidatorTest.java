@@ -0,0 +1,127 @@
+package com.food.Nest.menu.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.awspring.cloud.sns.core.SnsTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.CreateTopicRequest;
+import software.amazon.awssdk.services.sns.model.CreateTopicResponse;
+import software.amazon.awssdk.services.sns.model.ListSubscriptionsByTopicRequest;
+import software.amazon.awssdk.services.sns.model.SnsException;
+import software.amazon.awssdk.services.sns.model.SubscribeRequest;
+import software.amazon.awssdk.services.sns.model.SubscribeResponse;
+import software.amazon.awssdk.services.sns.model.Subscription;
+import software.amazon.awssdk.services.sns.model.UnsubscribeRequest;
+import software.amazon.awssdk.services.sns.paginators.ListSubscriptionsByTopicIterable;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.CreateQueueResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteQueueRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.ListQueueTagsRequest;
+import software.amazon.awssdk.services.sqs.model.ListQueueTagsResponse;
+import software.amazon.awssdk.services.sqs.model.ListQueuesRequest;
+import software.amazon.awssdk.services.sqs.model.ListQueuesResponse;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.SetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.TagQueueRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuCacheInvalidatorTest {
+
+    private static final String PREFIX = "menu-cache-invalidation-";
+
+    private SnsClient snsClient;
+    private SqsClient sqsClient;
+    private MenuCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        snsClient = Mockito.mock(SnsClient.class);
+        sqsClient = Mockito.mock(SqsClient.class);
+        invalidator = new MenuCacheInvalidator(Mockito.mock(MenuCache.class), Mockito.mock(SnsTemplate.class),
+                snsClient, sqsClient, new ObjectMapper(), PREFIX, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(invalidator, "notificationTopic", "notifications");
+
+        when(snsClient.createTopic(any(CreateTopicRequest.class)))
+                .thenReturn(CreateTopicResponse.builder().topicArn("arn:topic").build());
+        when(snsClient.subscribe(any(SubscribeRequest.class)))
+                .thenReturn(SubscribeResponse.builder().subscriptionArn("arn:own-subscription").build());
+        when(sqsClient.createQueue(any(CreateQueueRequest.class)))
+                .thenReturn(CreateQueueResponse.builder().queueUrl("own").build());
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenAnswer(invocation -> {
+            GetQueueAttributesRequest request = invocation.getArgument(0);
+            return GetQueueAttributesResponse.builder()
+                    .attributes(Map.of(QueueAttributeName.QUEUE_ARN, "arn:" + request.queueUrl()))
+                    .build();
+        });
+        when(sqsClient.listQueues(any(ListQueuesRequest.class)))
+                .thenReturn(ListQueuesResponse.builder().queueUrls("own", "alive", "dead").build());
+        tagged("alive", Instant.now().minusSeconds(60));
+        tagged("dead", Instant.now().minus(Duration.ofHours(1)));
+        ListSubscriptionsByTopicIterable subscriptions = Mockito.mock(ListSubscriptionsByTopicIterable.class);
+        when(subscriptions.subscriptions()).thenReturn(List.of(
+                Subscription.builder().subscriptionArn("arn:alive-subscription").endpoint("arn:alive").build(),
+                Subscription.builder().subscriptionArn("arn:dead-subscription").endpoint("arn:dead").build())::iterator);
+        when(snsClient.listSubscriptionsByTopicPaginator(any(ListSubscriptionsByTopicRequest.class)))
+                .thenReturn(subscriptions);
+    }
+
+    @Test
+    void queuesOfNodesWithAStaleHeartbeatAreUnsubscribedAndDeleted() {
+        invalidator.afterSingletonsInstantiated();
+
+        verify(snsClient).unsubscribe(UnsubscribeRequest.builder().subscriptionArn("arn:dead-subscription").build());
+        verify(sqsClient).deleteQueue(DeleteQueueRequest.builder().queueUrl("dead").build());
+        verify(snsClient, never()).unsubscribe(UnsubscribeRequest.builder().subscriptionArn("arn:alive-subscription").build());
+        verify(sqsClient, never()).deleteQueue(argThat((DeleteQueueRequest request) -> !request.queueUrl().equals("dead")));
+        verify(sqsClient, never()).listQueueTags(ListQueueTagsRequest.builder().queueUrl("own").build());
+    }
+
+    @Test
+    void queueCreatedByTheListenerContainerIsGivenItsAttributesAndHeartbeat() {
+        invalidator.afterSingletonsInstantiated();
+
+        verify(sqsClient).createQueue(argThat((CreateQueueRequest request) ->
+                request.queueName().equals(invalidator.getQueueName()) && !request.hasAttributes()));
+        verify(sqsClient).tagQueue(argThat((TagQueueRequest request) ->
+                request.queueUrl().equals("own") && request.tags().containsKey("heartbeat")));
+        verify(sqsClient).setQueueAttributes(argThat((SetQueueAttributesRequest request) ->
+                request.queueUrl().equals("own")
+                        && request.attributes().get(QueueAttributeName.MESSAGE_RETENTION_PERIOD).equals("600")
+                        && request.attributes().containsKey(QueueAttributeName.POLICY)));
+    }
+
+    @Test
+    void heartbeatRetriesAFailedSubscription() {
+        when(snsClient.subscribe(any(SubscribeRequest.class)))
+                .thenThrow(SnsException.builder().message("unavailable").build())
+                .thenReturn(SubscribeResponse.builder().subscriptionArn("arn:own-subscription").build());
+        invalidator.afterSingletonsInstantiated();
+
+        invalidator.heartbeat();
+
+        verify(snsClient, times(2)).subscribe(any(SubscribeRequest.class));
+        verify(sqsClient, never()).tagQueue(argThat((TagQueueRequest request) -> !request.queueUrl().equals("own")));
+    }
+
+    private void tagged(String queueUrl, Instant heartbeat) {
+        when(sqsClient.listQueueTags(ListQueueTagsRequest.builder().queueUrl(queueUrl).build()))
+                .thenReturn(ListQueueTagsResponse.builder().tags(Map.of("heartbeat", heartbeat.toString())).build());
+    }
+}
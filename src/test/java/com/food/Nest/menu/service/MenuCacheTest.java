@@ -0,0 +1,55 @@
+package com.food.Nest.menu.service;
+
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class MenuCacheTest {
+
+    private MenuCache menuCache;
+
+    @BeforeEach
+    void setUp() {
+        MenuRepository menuRepository = Mockito.mock(MenuRepository.class);
+        MenuItem burger = item(1L, "Burger", "Mains");
+        when(menuRepository.findByAvailableTrue()).thenReturn(List.of(burger));
+        when(menuRepository.findById(1L)).thenReturn(Optional.of(burger));
+        menuCache = new MenuCache(menuRepository, new ReplicaRouting(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void changesToReturnedItemsDoNotReachTheCache() {
+        MenuItem fromItem = menuCache.getMenuItem(1L);
+        fromItem.setPrice(BigDecimal.ONE);
+        menuCache.getAvailableMenuItems().get(0).setName("Changed");
+        menuCache.getMenuItemsByCategory("Mains").get(0).setAvailable(false);
+
+        assertThat(menuCache.getMenuItem(1L)).isNotSameAs(fromItem);
+        assertThat(menuCache.getMenuItem(1L).getPrice()).isEqualByComparingTo("8.50");
+        assertThat(menuCache.getAvailableMenuItems()).singleElement()
+                .satisfies(item -> assertThat(item.getName()).isEqualTo("Burger"));
+        assertThat(menuCache.getMenuItemsByCategory("Mains").get(0).getAvailable()).isTrue();
+    }
+
+    private static MenuItem item(Long id, String name, String category) {
+        MenuItem item = new MenuItem();
+        item.setMenuId(id);
+        item.setName(name);
+        item.setCategory(category);
+        item.setPrice(new BigDecimal("8.50"));
+        item.setAvailable(true);
+        return item;
+    }
+}
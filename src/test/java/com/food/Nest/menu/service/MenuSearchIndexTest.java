@@ -0,0 +1,113 @@
+package com.food.Nest.menu.service;
+
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class MenuSearchIndexTest {
+
+    private MenuRepository menuRepository;
+    private MenuSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        menuRepository = Mockito.mock(MenuRepository.class);
+        when(menuRepository.findByAvailableTrue()).thenReturn(List.of(
+                menuItem(1L, "Classic Cheeseburger", "Beef patty with cheddar", "Burgers"),
+                menuItem(2L, "Margherita Pizza", "Tomato, mozzarella and basil", "Pizza"),
+                menuItem(3L, "Caesar Salad", "Romaine with parmesan and croutons", "Salads"),
+                menuItem(4L, "Cheese Fries", "Fries topped with cheddar", "Sides")));
+        searchIndex = new MenuSearchIndex(menuRepository, new ReplicaRouting());
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(ids(searchIndex.search("cheddar"))).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(ids(searchIndex.search("chee"))).startsWith(4L).contains(1L);
+    }
+
+    @Test
+    void matchesPrefixesSubstringsAndTypos() {
+        assertThat(ids(searchIndex.search("marg"))).containsExactly(2L);
+        assertThat(ids(searchIndex.search("burger"))).contains(1L);
+        assertThat(ids(searchIndex.search("piza"))).containsExactly(2L);
+        assertThat(ids(searchIndex.search("Cesar salad"))).containsExactly(3L);
+    }
+
+    @Test
+    void requiresEveryTermToMatch() {
+        assertThat(ids(searchIndex.search("cheese pizza"))).isEmpty();
+    }
+
+    @Test
+    void changingASearchResultDoesNotChangeTheIndex() {
+        searchIndex.search("marg").get(0).setName("Changed");
+        searchIndex.search("").forEach(item -> item.setPrice(BigDecimal.ZERO));
+
+        assertThat(searchIndex.search("marg")).singleElement().satisfies(item -> {
+            assertThat(item.getName()).isEqualTo("Margherita Pizza");
+            assertThat(item.getPrice()).isNotEqualByComparingTo(BigDecimal.ZERO);
+        });
+    }
+
+    @Test
+    void refreshDropsItemsThatBecomeUnavailable() {
+        MenuItem pizza = menuItem(2L, "Margherita Pizza", "Tomato, mozzarella and basil", "Pizza");
+        pizza.setAvailable(false);
+        when(menuRepository.findById(2L)).thenReturn(Optional.of(pizza));
+
+        searchIndex.refresh(2L);
+
+        assertThat(searchIndex.search("pizza")).isEmpty();
+    }
+
+    @Test
+    void refreshCommittedDuringARebuildIsNotOverwrittenByIt() throws Exception {
+        CountDownLatch rebuildReading = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        List<MenuItem> beforeChange = List.of(
+                menuItem(2L, "Margherita Pizza", "Tomato, mozzarella and basil", "Pizza"));
+        when(menuRepository.findByAvailableTrue()).thenAnswer(invocation -> {
+            rebuildReading.countDown();
+            releaseRebuild.await();
+            return beforeChange;
+        });
+        MenuItem unavailable = menuItem(2L, "Margherita Pizza", "Tomato, mozzarella and basil", "Pizza");
+        unavailable.setAvailable(false);
+        when(menuRepository.findById(2L)).thenReturn(Optional.of(unavailable));
+
+        Thread rebuild = Thread.ofVirtual().start(searchIndex::rebuild);
+        rebuildReading.await();
+        Thread refresh = Thread.ofVirtual().start(() -> searchIndex.refresh(2L));
+        while (refresh.getState() != Thread.State.WAITING && refresh.getState() != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+        releaseRebuild.countDown();
+        rebuild.join();
+        refresh.join();
+
+        assertThat(searchIndex.search("pizza")).isEmpty();
+    }
+
+    private static List<Long> ids(List<MenuItem> menuItems) {
+        return menuItems.stream().map(MenuItem::getMenuId).toList();
+    }
+
+    private static MenuItem menuItem(Long id, String name, String description, String category) {
+        return new MenuItem(id, name, description, new BigDecimal("9.99"), category,
+                true, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,107 @@
+package com.food.Nest.menu.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.menu.controller.MenuController;
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.messaging.JacksonConfig;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class MenuSnapshotRendererTest {
+
+    private MenuRepository menuRepository;
+    private MenuCache menuCache;
+    private MenuSnapshotRenderer renderer;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        menuRepository = Mockito.mock(MenuRepository.class);
+        when(menuRepository.findByAvailableTrue()).thenReturn(List.of(
+                item(1L, "Margherita", "Pizza"), item(2L, "Tiramisu", "Dessert")));
+        menuCache = new MenuCache(menuRepository, new ReplicaRouting(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        renderer = new MenuSnapshotRenderer(menuCache, objectMapper, true);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new MenuController(Mockito.mock(MenuService.class), renderer)).build();
+    }
+
+    @Test
+    void servesRenderedMenuWithStrongEtagAndAnswersIfNoneMatchWith304() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/api/menu")).andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        assertThat(first.getContentAsString()).contains("Margherita").contains("Tiramisu");
+
+        MockHttpServletResponse revalidated = mockMvc.perform(get("/api/menu")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getContentAsByteArray()).isEmpty();
+        verify(menuRepository, times(1)).findByAvailableTrue();
+    }
+
+    @Test
+    void servesPreGzippedBytesToClientsThatAcceptThem() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/menu/category/Pizza")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andReturn().getResponse();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(json).contains("Margherita").doesNotContain("Tiramisu");
+        }
+
+        MockHttpServletResponse refused = mockMvc.perform(get("/api/menu/category/Pizza")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity")).andReturn().getResponse();
+        assertThat(refused.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void rendersAgainOnlyWhenTheMenuChanges() {
+        MenuSnapshotRenderer.RenderedMenu before = renderer.getMenu();
+        assertThat(renderer.getMenu()).isSameAs(before);
+        assertThat(renderer.getCategory("Unknown").json()).isEqualTo("[]".getBytes(StandardCharsets.UTF_8));
+
+        menuCache.invalidateAll();
+        assertThat(renderer.getMenu().etag()).isEqualTo(before.etag());
+
+        when(menuRepository.findByAvailableTrue()).thenReturn(List.of(item(1L, "Margherita", "Pizza")));
+        menuCache.invalidate(2L);
+        assertThat(renderer.getMenu().etag()).isNotEqualTo(before.etag());
+    }
+
+    private static MenuItem item(Long id, String name, String category) {
+        MenuItem item = new MenuItem();
+        item.setMenuId(id);
+        item.setName(name);
+        item.setCategory(category);
+        item.setPrice(new BigDecimal("9.50"));
+        item.setAvailable(true);
+        return item;
+    }
+}
@@ -0,0 +1,54 @@
+package com.food.Nest.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListenerWorkExecutorTest {
+
+    @Test
+    void runsWorkOnVirtualThreadsWhenEnabled() throws Exception {
+        ListenerWorkExecutor executor = new ListenerWorkExecutor(true);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+
+        executor.run(() -> worker.set(Thread.currentThread())).get();
+
+        assertTrue(worker.get().isVirtual());
+        executor.shutdown();
+    }
+
+    @Test
+    void runsWorkInlineWhenDisabled() throws Exception {
+        ListenerWorkExecutor executor = new ListenerWorkExecutor(false);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+
+        CompletableFuture<Void> result = executor.run(() -> worker.set(Thread.currentThread()));
+
+        assertTrue(result.isDone());
+        assertSame(Thread.currentThread(), worker.get());
+        assertFalse(worker.get().isVirtual());
+    }
+
+    @Test
+    void failedWorkCompletesExceptionallySoTheMessageIsRedelivered() throws Exception {
+        for (boolean virtualThreads : new boolean[]{true, false}) {
+            ListenerWorkExecutor executor = new ListenerWorkExecutor(virtualThreads);
+
+            CompletableFuture<Void> result = executor.run(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.food.Nest.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.orders.model.OrderEvent;
+import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageCodecTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void smileMessagesAreTaggedAndReadableByAnyCodec() {
+        MessageCodec smile = new MessageCodec(objectMapper, MessageFormat.SMILE);
+        MessageCodec json = new MessageCodec(objectMapper, MessageFormat.JSON);
+        OrderEvent event = new OrderEvent(42L, OrderStatus.READY, LocalDateTime.of(2024, 5, 1, 12, 30),
+                "jane@example.com", "Jane Doe", "ORDER_STATUS_UPDATED");
+
+        String body = smile.encode(event);
+        String contentType = smile.messageAttributes().get(MessageCodec.CONTENT_TYPE_ATTRIBUTE).stringValue();
+
+        assertThat(contentType).isEqualTo(MessageFormat.SMILE.getContentType());
+        assertThat(json.decode(body, contentType, OrderEvent.class)).isEqualTo(event);
+    }
+
+    @Test
+    void untaggedMessagesAreReadAsJson() throws Exception {
+        MessageCodec smile = new MessageCodec(objectMapper, MessageFormat.SMILE);
+        OrderRequest request = orderRequest();
+
+        OrderRequest decoded = smile.decode(objectMapper.writeValueAsString(request), null, OrderRequest.class);
+
+        assertThat(decoded).isEqualTo(request);
+    }
+
+    @Test
+    void smileOrderRequestsAreSmallerThanJsonEvenAfterBase64() {
+        OrderRequest request = orderRequest();
+
+        int jsonSize = new MessageCodec(objectMapper, MessageFormat.JSON).encode(request).length();
+        int smileSize = new MessageCodec(objectMapper, MessageFormat.SMILE).encode(request).length();
+
+        assertThat(smileSize).isLessThan(jsonSize);
+    }
+
+    @Test
+    void unknownContentTypesAreRejected() {
+        MessageCodec json = new MessageCodec(objectMapper, MessageFormat.JSON);
+
+        assertThatThrownBy(() -> json.decode("{}", "application/xml", OrderRequest.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OrderRequest orderRequest() {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setMenuItemId((long) i);
+            item.setQuantity(2);
+            items.add(item);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Jane Doe");
+        request.setCustomerEmail("jane@example.com");
+        request.setCustomerPhone("+27 21 555 0100");
+        request.setDeliveryAddress("1 Long Street, Cape Town");
+        request.setOrderItems(items);
+        request.setIdempotencyKey("3f1c2a9e-8d7b-4c1e-9f0a-6b5d4e3c2a10");
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.food.Nest.messaging;
+
+import com.food.Nest.orders.service.OrderDeduplicator;
+import com.food.Nest.orders.service.SqsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class OrderAdmissionGateTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderDeduplicator orderDeduplicator;
+    private OrderAdmissionGate gate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderDeduplicator = Mockito.mock(OrderDeduplicator.class);
+        gate = new OrderAdmissionGate(Mockito.mock(SqsService.class), orderDeduplicator, meterRegistry, true,
+                Duration.ofSeconds(30), 100, Duration.ofSeconds(60), Duration.ofSeconds(5), 1, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void admitsWhileTheBacklogDrainsWithinTheLimit() {
+        long now = System.nanoTime();
+        gate.record(50, 0, now - 5 * SECOND);
+        gate.record(1000, 500, now);
+
+        assertThat(gate.retryAfter(null)).isEmpty();
+        assertThat(meterRegistry.get("orders.admission.projected.wait").gauge().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    void refusesWithRetryAfterOnceTheWaitIsFarPastTheLimit() {
+        long now = System.nanoTime();
+        gate.record(50, 0, now - 5 * SECOND);
+        gate.record(10_000, 500, now);
+
+        assertThat(gate.retryAfter(null)).contains(Duration.ofSeconds(60));
+        assertThat(meterRegistry.counter("orders.admission", "decision", "rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsUntilTheProcessingRateIsKnown() {
+        gate.record(10_000, 0, System.nanoTime());
+
+        assertThat(gate.retryAfter(null)).isEmpty();
+    }
+
+    @Test
+    void refusesWhenNothingDrainsALargeBacklog() {
+        long now = System.nanoTime();
+        gate.record(5_000, 200, now - 5 * SECOND);
+        gate.record(5_000, 200, now);
+
+        assertThat(gate.retryAfter(null)).isPresent();
+    }
+
+    @Test
+    void intervalsWithAnEmptyQueueDoNotCountTowardsTheDrainRate() {
+        long now = System.nanoTime();
+        // Orders arrive at 200/s and leave as fast while the queue is empty
+        gate.record(0, 0, now - 15 * SECOND);
+        gate.record(0, 1000, now - 10 * SECOND);
+        gate.record(500, 1000, now - 5 * SECOND);
+        gate.record(1000, 1025, now);
+
+        assertThat(meterRegistry.get("orders.admission.processing.rate").gauge().value()).isEqualTo(5.0);
+        assertThat(gate.retryAfter(null)).isPresent();
+    }
+
+    @Test
+    void retryOfAnAdmittedOrCreatedOrderIsNeverRefused() {
+        long now = System.nanoTime();
+        gate.record(50, 0, now - 10 * SECOND);
+        gate.record(1000, 500, now - 5 * SECOND);
+        assertThat(gate.retryAfter("queued")).isEmpty();
+
+        gate.record(10_000, 500, now);
+        when(orderDeduplicator.isDuplicate("created")).thenReturn(true);
+
+        assertThat(gate.retryAfter("queued")).isEmpty();
+        assertThat(gate.retryAfter("created")).isEmpty();
+        assertThat(gate.retryAfter("new")).isPresent();
+    }
+}
@@ -0,0 +1,155 @@
+package com.food.Nest.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.menu.service.MenuCache;
+import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.OrderIdempotencyKeyRepository;
+import com.food.Nest.orders.repository.OrderRepository;
+import com.food.Nest.orders.repository.OutboxEventRepository;
+import com.food.Nest.orders.service.ActiveOrdersProjection;
+import com.food.Nest.orders.service.OrderDeduplicator;
+import com.food.Nest.orders.service.OrderPipelineMetrics;
+import com.food.Nest.orders.service.OrderReadConsistency;
+import com.food.Nest.orders.service.OrderService;
+import com.food.Nest.orders.service.OrderStatisticsTracker;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs a batch through a transactional OrderService, with each call committing on its own,
+ * so the one-by-one fallback sees what the failed batch left behind.
+ */
+@DataJpaTest
+@Import(OrderBatchMessageConsumerTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBatchMessageConsumerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new JacksonConfig().objectMapper();
+    private static final MessageCodec CODEC = new MessageCodec(OBJECT_MAPPER, MessageFormat.JSON);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderDeduplicator orderDeduplicator;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM order_idempotency_keys");
+        jdbc.update("DELETE FROM order_items");
+        jdbc.update("DELETE FROM orders");
+        menuRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchFailingOnAKeyAnotherDeliveryCommittedSavesTheRestOnceWithTheirKeys() {
+        Long menuItemId = menuRepository.save(new MenuItem(null, "Burger", "Burger", new BigDecimal("4.00"),
+                "Mains", true, LocalDateTime.now(), LocalDateTime.now())).getMenuId();
+        // The other delivery commits after this batch checked its keys
+        doReturn(false).doCallRealMethod().when(orderDeduplicator).isDuplicate("first");
+        orderService.createOrders(List.of(orderService.buildOrder(request("first", menuItemId))));
+        Message<String> redelivered = message(request("first", menuItemId));
+        Message<String> other = message(request("second", menuItemId));
+        BatchAcknowledgement<String> acknowledgement = Mockito.mock(BatchAcknowledgement.class);
+
+        consumer().consumeOrderMessages(List.of(redelivered, other), acknowledgement).join();
+
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM orders", Long.class)).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT idempotency_key FROM order_idempotency_keys", String.class))
+                .containsExactlyInAnyOrder("first", "second");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM orders o JOIN order_idempotency_keys k " +
+                "ON k.order_id = o.order_id", Long.class)).isEqualTo(2);
+        verify(acknowledgement).acknowledge(List.of(other));
+        verify(acknowledgement).acknowledge(List.of(redelivered));
+        verify(acknowledgement, Mockito.times(2)).acknowledge(anyCollection());
+    }
+
+    private OrderBatchMessageConsumer consumer() {
+        return new OrderBatchMessageConsumer(orderService, orderDeduplicator, CODEC, new SimpleMeterRegistry(),
+                Mockito.mock(OrderPipelineMetrics.class), new ListenerWorkExecutor(false));
+    }
+
+    private static Message<String> message(OrderRequest request) {
+        return MessageBuilder.withPayload(CODEC.encode(request)).build();
+    }
+
+    private static OrderRequest request(String idempotencyKey, Long menuItemId) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setMenuItemId(menuItemId);
+        item.setQuantity(1);
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Jane Doe");
+        request.setCustomerEmail("jane@example.com");
+        request.setCustomerPhone("555-0100");
+        request.setDeliveryAddress("1 Main Street");
+        request.setOrderItems(List.of(item));
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        OrderDeduplicator orderDeduplicator(OrderIdempotencyKeyRepository keyRepository) {
+            return Mockito.spy(new OrderDeduplicator(keyRepository, new ReplicaRouting(), new SimpleMeterRegistry(),
+                    100, Duration.ofDays(1)));
+        }
+
+        @Bean
+        MenuCache menuCache(MenuRepository menuRepository) {
+            return new MenuCache(menuRepository, new ReplicaRouting(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        }
+
+        @Bean
+        OrderService orderService(OrderRepository orderRepository, MenuCache menuCache,
+                                  OutboxEventRepository outboxRepository, ArchivedOrderRepository archiveRepository,
+                                  OrderDeduplicator orderDeduplicator, ApplicationEventPublisher eventPublisher) {
+            return new OrderService(orderRepository, menuCache, outboxRepository,
+                    CODEC,
+                    new OrderStatisticsTracker(orderRepository),
+                    orderDeduplicator,
+                    eventPublisher,
+                    Mockito.mock(ActiveOrdersProjection.class),
+                    new OrderReadConsistency(new ReplicaRouting(), false, Duration.ofSeconds(15)),
+                    archiveRepository);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.food.Nest.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.orders.model.OrderRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderMessageProducerTest {
+
+    private SqsAsyncClient sqsAsyncClient;
+    private OrderMessageProducer producer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        sqsAsyncClient = Mockito.mock(SqsAsyncClient.class);
+        when(sqsAsyncClient.getQueueUrl(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(
+                GetQueueUrlResponse.builder().queueUrl("http://localhost:4566/000000000000/food-order-queue").build()));
+        producer = new OrderMessageProducer(sqsAsyncClient, new MessageCodec(new ObjectMapper(), MessageFormat.JSON),
+                new SimpleMeterRegistry(), 10, Duration.ofMillis(200), 100);
+        producer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        producer.stop();
+    }
+
+    @Test
+    void sendsConcurrentMessagesInOneBatchAndCompletesEachFuture() {
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(SendMessageBatchResponse.builder()
+                        .successful(SendMessageBatchResultEntry.builder().id("0").messageId("m-0").build())
+                        .failed(BatchResultErrorEntry.builder().id("1").code("InternalError").senderFault(false).build())
+                        .build()));
+
+        CompletableFuture<Void> first = producer.sendOrderMessage(new OrderRequest());
+        CompletableFuture<Void> second = producer.sendOrderMessage(new OrderRequest());
+
+        assertThat(first).succeedsWithin(Duration.ofSeconds(5));
+        assertThat(second).failsWithin(Duration.ofSeconds(5));
+
+        ArgumentCaptor<SendMessageBatchRequest> request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(request.capture());
+        assertThat(request.getValue().entries()).hasSize(2);
+    }
+
+    @Test
+    void sendsFailAtOnceWhenTooManyMessagesAreWaiting() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return CompletableFuture.completedFuture(SendMessageBatchResponse.builder().build());
+        });
+        OrderMessageProducer bounded = new OrderMessageProducer(sqsAsyncClient,
+                new MessageCodec(new ObjectMapper(), MessageFormat.JSON), new SimpleMeterRegistry(), 1, Duration.ZERO, 1);
+        bounded.start();
+        try {
+            bounded.sendOrderMessage(new OrderRequest());
+            sending.await();
+            CompletableFuture<Void> waiting = bounded.sendOrderMessage(new OrderRequest());
+            CompletableFuture<Void> rejected = bounded.sendOrderMessage(new OrderRequest());
+
+            assertThat(waiting).isNotDone();
+            assertThat(rejected).isCompletedExceptionally();
+        } finally {
+            release.countDown();
+            bounded.stop();
+        }
+    }
+
+    @Test
+    void sendsAfterStopFailInsteadOfWaitingForever() throws InterruptedException {
+        producer.stop();
+
+        assertThat(producer.sendOrderMessage(new OrderRequest())).isCompletedExceptionally();
+    }
+}
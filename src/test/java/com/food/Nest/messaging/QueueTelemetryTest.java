@@ -0,0 +1,80 @@
+package com.food.Nest.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueueTelemetryTest {
+
+    private SqsAsyncClient sqsAsyncClient;
+    private SimpleMeterRegistry meterRegistry;
+    private QueueTelemetry telemetry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        sqsAsyncClient = Mockito.mock(SqsAsyncClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(sqsAsyncClient.getQueueUrl(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(
+                GetQueueUrlResponse.builder().queueUrl("http://localhost:4566/000000000000/queue").build()));
+        telemetry = new QueueTelemetry(sqsAsyncClient, meterRegistry, "food-order-queue", "order-notification-queue");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pollCachesCountsAndResolvesQueueUrlsOnce() {
+        when(sqsAsyncClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(attributes("12", "3", "1")));
+
+        telemetry.poll();
+        telemetry.poll();
+
+        QueueTelemetry.QueueStats stats = telemetry.getStats("food-order-queue");
+        assertThat(stats.visible()).isEqualTo(12);
+        assertThat(stats.inFlight()).isEqualTo(3);
+        assertThat(stats.delayed()).isEqualTo(1);
+        assertThat(stats.lastError()).isNull();
+        assertThat(meterRegistry.get("sqs.queue.messages").tags("queue", "food-order-queue", "state", "in_flight")
+                .gauge().value()).isEqualTo(3);
+        verify(sqsAsyncClient, times(2)).getQueueUrl(any(Consumer.class));
+    }
+
+    @Test
+    void failedPollKeepsTheLastCountsAndReportsTheError() {
+        when(sqsAsyncClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(attributes("12", "3", "1")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("throttled")));
+
+        telemetry.poll();
+        telemetry.poll();
+
+        QueueTelemetry.QueueStats stats = telemetry.getStats("food-order-queue");
+        assertThat(stats.visible()).isEqualTo(12);
+        assertThat(stats.lastError()).contains("throttled");
+    }
+
+    private static GetQueueAttributesResponse attributes(String visible, String inFlight, String delayed) {
+        return GetQueueAttributesResponse.builder()
+                .attributes(Map.of(
+                        QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES, visible,
+                        QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE, inFlight,
+                        QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_DELAYED, delayed))
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.food.Nest.orders.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.menu.service.MenuCache;
+import com.food.Nest.messaging.JacksonConfig;
+import com.food.Nest.messaging.MessageCodec;
+import com.food.Nest.messaging.MessageFormat;
+import com.food.Nest.messaging.OrderAdmissionGate;
+import com.food.Nest.messaging.OrderMessageProducer;
+import com.food.Nest.orders.model.OrderDetail;
+import com.food.Nest.orders.model.OrderItem;
+import com.food.Nest.orders.model.OrderPage;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.OrderIdempotencyKeyRepository;
+import com.food.Nest.orders.repository.OrderRepository;
+import com.food.Nest.orders.repository.OutboxEventRepository;
+import com.food.Nest.orders.service.ActiveOrdersProjection;
+import com.food.Nest.orders.service.OrderDeduplicator;
+import com.food.Nest.orders.service.OrderPipelineMetrics;
+import com.food.Nest.orders.service.OrderReadConsistency;
+import com.food.Nest.orders.service.OrderService;
+import com.food.Nest.orders.service.OrderStatisticsTracker;
+import com.food.Nest.orders.service.OrderStatusBroadcaster;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the order read endpoints against N+1 loading: each one, from the controller
+ * through the service and mapping to the serialized response, costs a fixed number of statements
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderReadModelStatementCountTest {
+
+    private static final int ORDERS = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archiveRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private OrderController orderController;
+    private Statistics statistics;
+    private Long firstOrderId;
+
+    @BeforeEach
+    void setUp() {
+        List<MenuItem> menuItems = Stream.of("Burger", "Fries", "Shake")
+                .map(name -> entityManager.persist(new MenuItem(null, name, name, new BigDecimal("4.00"),
+                        "Mains", true, LocalDateTime.now(), LocalDateTime.now())))
+                .toList();
+
+        for (int i = 0; i < ORDERS; i++) {
+            OrderEntity order = order();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setMenuItem(menuItems.get(j));
+                item.setQuantity(1);
+                item.setUnitPrice(new BigDecimal("4.00"));
+                item.calculateAndSetTotalPrice();
+                order.getOrderItems().add(item);
+            }
+            OrderEntity saved = entityManager.persist(order);
+            if (firstOrderId == null) {
+                firstOrderId = saved.getOrderId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        OrderService orderService = new OrderService(orderRepository,
+                new MenuCache(menuRepository, new ReplicaRouting(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)),
+                outboxRepository,
+                new MessageCodec(objectMapper, MessageFormat.JSON),
+                new OrderStatisticsTracker(orderRepository),
+                new OrderDeduplicator(Mockito.mock(OrderIdempotencyKeyRepository.class), new ReplicaRouting(), new SimpleMeterRegistry(),
+                        100, Duration.ofDays(1)),
+                Mockito.mock(ApplicationEventPublisher.class),
+                Mockito.mock(ActiveOrdersProjection.class),
+                new OrderReadConsistency(new ReplicaRouting(), false, Duration.ofSeconds(15)),
+                archiveRepository);
+        orderController = new OrderController(Mockito.mock(OrderMessageProducer.class),
+                Mockito.mock(OrderAdmissionGate.class), orderService, Mockito.mock(OrderPipelineMetrics.class),
+                Mockito.mock(OrderStatusBroadcaster.class), objectMapper);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void orderListingIsOneStatement() throws IOException {
+        ResponseEntity<OrderPage<OrderSummary>> response =
+                orderController.getOrdersByStatus(OrderStatus.PREPARING, null, ORDERS);
+
+        assertThat(response.getBody().getOrders()).hasSize(ORDERS);
+        objectMapper.writeValueAsBytes(response.getBody());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void orderStreamIsOneStatement() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        orderController.streamOrdersByStatus(OrderStatus.PREPARING).getBody().writeTo(body);
+
+        assertThat(body.toString(StandardCharsets.UTF_8).lines()).hasSize(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void customerHistoryAcrossOrdersAndArchiveIsOneStatement() throws IOException {
+        ResponseEntity<OrderPage<OrderSummary>> response =
+                orderController.getOrdersByCustomerEmail("customer@example.com", null, ORDERS);
+
+        assertThat(response.getBody().getOrders()).hasSize(ORDERS);
+        objectMapper.writeValueAsBytes(response.getBody());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void orderDetailWithItemsAndMenuItemsIsOneStatement() throws IOException {
+        ResponseEntity<OrderDetail> response = orderController.getOrder(firstOrderId);
+
+        assertThat(response.getBody().getOrderItems()).hasSize(ITEMS_PER_ORDER)
+                .extracting(OrderDetail.Item::getMenuItemName)
+                .containsExactlyInAnyOrder("Burger", "Fries", "Shake");
+        objectMapper.writeValueAsBytes(response.getBody());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static OrderEntity order() {
+        OrderEntity order = new OrderEntity();
+        order.setCustomerName("Jane Doe");
+        order.setCustomerEmail("customer@example.com");
+        order.setCustomerPhone("555-0100");
+        order.setDeliveryAddress("1 Main Street");
+        order.setStatus(OrderStatus.PREPARING);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        return order;
+    }
+}
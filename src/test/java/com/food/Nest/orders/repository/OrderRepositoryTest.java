@@ -0,0 +1,100 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 7; i++) {
+            orderRepository.save(order("customer@example.com", OrderStatus.PENDING));
+        }
+        orderRepository.save(order("other@example.com", OrderStatus.PENDING));
+        orderRepository.save(order("customer@example.com", OrderStatus.DELIVERED));
+        orderRepository.flush();
+    }
+
+    @Test
+    void keysetPagesCoverEveryOrderOnceInOrder() {
+        List<OrderSummary> seen = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.of(9999, 12, 31, 23, 59);
+        Long orderId = Long.MAX_VALUE;
+        List<OrderSummary> page;
+        do {
+            page = orderRepository.findPageByStatus(OrderStatus.PENDING, createdAt, orderId, Limit.of(3));
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                createdAt = page.get(page.size() - 1).getCreatedAt();
+                orderId = page.get(page.size() - 1).getOrderId();
+            }
+        } while (page.size() == 3);
+
+        assertThat(seen).hasSize(8);
+        assertThat(seen).extracting(OrderSummary::getOrderId).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo((a, b) -> {
+            int byCreatedAt = b.getCreatedAt().compareTo(a.getCreatedAt());
+            return byCreatedAt != 0 ? byCreatedAt : b.getOrderId().compareTo(a.getOrderId());
+        });
+    }
+
+    @Test
+    void customerPageMergesArchivedOrdersNewestFirst() {
+        LocalDateTime archivedAt = LocalDateTime.now().minusDays(100);
+        jdbc.update("INSERT INTO orders_archive (order_id, customer_name, customer_email, customer_phone, " +
+                        "delivery_address, status, total_amount, created_at, updated_at, archived_at) " +
+                        "VALUES (-1, 'Jane Doe', 'customer@example.com', '555-0100', '1 Main Street', 'DELIVERED', " +
+                        "12.50, ?, ?, ?)", archivedAt, archivedAt, archivedAt);
+
+        List<OrderRepository.OrderSummaryRow> page = orderRepository.findPageByCustomerEmailIncludingArchive("customer@example.com",
+                LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE, 9);
+
+        assertThat(page).hasSize(9).extracting(OrderRepository.OrderSummaryRow::getCustomerEmail)
+                .containsOnly("customer@example.com");
+        assertThat(page.get(8).getOrderId()).isEqualTo(-1L);
+        assertThat(page.subList(0, 8)).extracting(OrderRepository.OrderSummaryRow::getOrderId).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void countsEveryStatusInOneQuery() {
+        assertThat(orderRepository.countGroupedByStatus())
+                .extracting(OrderRepository.StatusCount::getStatus, OrderRepository.StatusCount::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple(OrderStatus.PENDING, 8L),
+                        tuple(OrderStatus.DELIVERED, 1L));
+    }
+
+    static OrderEntity order(String customerEmail, OrderStatus status) {
+        OrderEntity order = new OrderEntity();
+        order.setCustomerName("Jane Doe");
+        order.setCustomerEmail(customerEmail);
+        order.setCustomerPhone("555-0100");
+        order.setDeliveryAddress("1 Main Street");
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        return order;
+    }
+}
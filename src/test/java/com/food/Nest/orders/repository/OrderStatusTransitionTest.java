@@ -0,0 +1,165 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.persistence.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native transition statement against PostgreSQL, with each step committed on its own
+ * so concurrent transitions really contend for the row locks.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusTransitionTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void transitionReportsThePreviousStatusAndBumpsTheVersion() {
+        Long orderId = orderRepository.save(OrderRepositoryTest.order("jane@example.com", OrderStatus.PENDING)).getOrderId();
+
+        List<OrderRepository.StatusTransition> applied = transition(orderId, OrderStatus.CONFIRMED);
+
+        assertThat(applied).singleElement().satisfies(transition -> {
+            assertThat(transition.getOrderId()).isEqualTo(orderId);
+            assertThat(transition.getPreviousStatus()).isEqualTo(OrderStatus.PENDING);
+            assertThat(transition.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+            assertThat(transition.getVersion()).isEqualTo(1L);
+        });
+        assertThat(statusAndVersion(orderId)).isEqualTo("CONFIRMED/1");
+    }
+
+    @Test
+    void orderInAnotherStatusIsLeftUntouched() {
+        Long orderId = orderRepository.save(OrderRepositoryTest.order("jane@example.com", OrderStatus.PENDING)).getOrderId();
+
+        assertThat(transition(orderId, OrderStatus.READY)).isEmpty();
+        assertThat(statusAndVersion(orderId)).isEqualTo("PENDING/0");
+    }
+
+    @Test
+    void concurrentTransitionIsCheckedAgainstTheStatusTheFirstOneCommitted() throws Exception {
+        Long orderId = orderRepository.save(OrderRepositoryTest.order("jane@example.com", OrderStatus.PENDING)).getOrderId();
+
+        CompletableFuture<List<OrderRepository.StatusTransition>> second = whileHoldingTransition(orderId,
+                OrderStatus.CONFIRMED, () -> transition(orderId, OrderStatus.PREPARING));
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).singleElement().satisfies(transition -> {
+            assertThat(transition.getPreviousStatus()).isEqualTo(OrderStatus.CONFIRMED);
+            assertThat(transition.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        });
+        assertThat(statusAndVersion(orderId)).isEqualTo("PREPARING/2");
+    }
+
+    @Test
+    void concurrentTransitionFromTheSameStatusLosesToTheFirstOne() throws Exception {
+        Long orderId = orderRepository.save(OrderRepositoryTest.order("jane@example.com", OrderStatus.PENDING)).getOrderId();
+
+        CompletableFuture<List<OrderRepository.StatusTransition>> second = whileHoldingTransition(orderId,
+                OrderStatus.CONFIRMED, () -> transition(orderId, OrderStatus.CONFIRMED));
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEmpty();
+        assertThat(statusAndVersion(orderId)).isEqualTo("CONFIRMED/1");
+    }
+
+    @Test
+    void lockingForABulkUpdateReturnsTheExistingOrdersInIdOrder() {
+        Long first = orderRepository.save(OrderRepositoryTest.order("jane@example.com", OrderStatus.PENDING)).getOrderId();
+        Long second = orderRepository.save(OrderRepositoryTest.order("jane@example.com", OrderStatus.READY)).getOrderId();
+
+        List<Long> locked = transactionTemplate.execute(tx ->
+                orderRepository.lockByOrderIdIn(List.of(second, -1L, first)));
+
+        assertThat(locked).containsExactly(first, second);
+    }
+
+    /**
+     * Apply a transition in an open transaction, start the second one on another thread, wait
+     * until it is blocked on the row lock and only then commit the first.
+     */
+    private CompletableFuture<List<OrderRepository.StatusTransition>> whileHoldingTransition(
+            Long orderId, OrderStatus status, Supplier<List<OrderRepository.StatusTransition>> second) {
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletableFuture<List<OrderRepository.StatusTransition>> result = new CompletableFuture<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            assertThat(transition(orderId, status)).hasSize(1);
+            executor.submit(() -> {
+                try {
+                    result.complete(second.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            awaitLockWaiter();
+        });
+        executor.close();
+        return result;
+    }
+
+    private void awaitLockWaiter() {
+        // A connection of its own: pg_stat_activity is read once per transaction
+        JdbcTemplate monitor = new JdbcTemplate(PostgresTestDatabase.dataSource());
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        String waiting = "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'";
+        while (monitor.queryForObject(waiting, Long.class) == 0) {
+            assertThat(System.nanoTime()).as("second transition blocked on the row lock").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private List<OrderRepository.StatusTransition> transition(Long orderId, OrderStatus status) {
+        return transactionTemplate.execute(tx -> orderRepository.transitionStatuses(List.of(orderId), status.name(),
+                status.getPredecessors().stream().map(OrderStatus::name).toList(), null, LocalDateTime.now()));
+    }
+
+    private String statusAndVersion(Long orderId) {
+        return jdbc.queryForObject("SELECT status || '/' || version FROM orders WHERE order_id = ?", String.class, orderId);
+    }
+}
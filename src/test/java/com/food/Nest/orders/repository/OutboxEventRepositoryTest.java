@@ -0,0 +1,50 @@
+package com.food.Nest.orders.repository;
+
+import com.food.Nest.orders.model.entity.OutboxEventEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Test
+    void locksOnlyTheOldestDueEventOfEachOrder() {
+        OutboxEventEntity firstOfOrder1 = outboxRepository.save(event(1L, 1L));
+        outboxRepository.save(event(1L, 2L));
+        OutboxEventEntity firstOfOrder2 = outboxRepository.save(event(2L, 1L));
+        OutboxEventEntity delayed = event(3L, 1L);
+        delayed.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        outboxRepository.save(delayed);
+        outboxRepository.flush();
+
+        List<OutboxEventEntity> batch = outboxRepository.lockNextBatch(LocalDateTime.now().plusSeconds(1), 10);
+
+        assertThat(batch).extracting(OutboxEventEntity::getId)
+                .containsExactly(firstOfOrder1.getId(), firstOfOrder2.getId());
+    }
+
+    @Test
+    void eventsOfOneOrderGoOutInOrderVersionOrderRatherThanIdOrder() {
+        // Another node's sequence block can give the later change the lower id
+        outboxRepository.save(event(1L, 3L));
+        OutboxEventEntity earlier = outboxRepository.save(event(1L, 2L));
+        outboxRepository.flush();
+
+        List<OutboxEventEntity> batch = outboxRepository.lockNextBatch(LocalDateTime.now().plusSeconds(1), 10);
+
+        assertThat(batch).extracting(OutboxEventEntity::getId).containsExactly(earlier.getId());
+    }
+
+    private static OutboxEventEntity event(Long orderId, Long orderVersion) {
+        return new OutboxEventEntity(orderId, orderVersion, "ORDER_STATUS_UPDATED", "{\"orderId\":" + orderId + "}", "application/json");
+    }
+}
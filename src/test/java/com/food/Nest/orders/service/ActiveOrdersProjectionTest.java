@@ -0,0 +1,111 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class ActiveOrdersProjectionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private OrderRepository orderRepository;
+    private ActiveOrdersProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = Mockito.mock(OrderRepository.class);
+        projection = new ActiveOrdersProjection(orderRepository, Mockito.mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void pagesFollowTheDatabaseListingOrder() {
+        when(orderRepository.streamByStatusIn(any())).thenReturn(Stream.of(
+                order(1L, OrderStatus.PENDING, 0), order(2L, OrderStatus.PENDING, 5),
+                order(3L, OrderStatus.PENDING, 5), order(4L, OrderStatus.READY, 9)));
+        projection.reload();
+
+        List<OrderSummary> first = projection.getPageByStatus(OrderStatus.PENDING, OrderCursor.decode(null), 2);
+        List<OrderSummary> second = projection.getPageByStatus(OrderStatus.PENDING,
+                OrderCursor.decode(OrderCursor.encode(first.get(1))), 2);
+
+        assertThat(first).extracting(OrderSummary::getOrderId).containsExactly(3L, 2L);
+        assertThat(second).extracting(OrderSummary::getOrderId).containsExactly(1L);
+        assertThat(projection.serves(OrderStatus.PENDING)).isTrue();
+        assertThat(projection.serves(OrderStatus.DELIVERED)).isFalse();
+    }
+
+    @Test
+    void ordersMoveBetweenStatusesAndLeaveWhenFinished() {
+        when(orderRepository.streamByStatusIn(any())).thenReturn(Stream.empty());
+        projection.reload();
+
+        apply(order(1L, OrderStatus.PENDING, 0));
+        apply(order(1L, OrderStatus.CONFIRMED, 0));
+        assertThat(ids(OrderStatus.PENDING)).isEmpty();
+        assertThat(ids(OrderStatus.CONFIRMED)).containsExactly(1L);
+
+        apply(order(1L, OrderStatus.CANCELLED, 0));
+        apply(order(1L, OrderStatus.PREPARING, 0));
+
+        assertThat(ids(OrderStatus.CONFIRMED)).isEmpty();
+        assertThat(ids(OrderStatus.PREPARING)).isEmpty();
+        assertThat(projection.getByCustomerEmail("jane@example.com")).isEmpty();
+    }
+
+    @Test
+    void lateEventForAnEarlierStatusIsIgnored() {
+        when(orderRepository.streamByStatusIn(any())).thenReturn(Stream.of(order(1L, OrderStatus.READY, 0)));
+        projection.reload();
+
+        apply(order(1L, OrderStatus.PREPARING, 0));
+
+        assertThat(ids(OrderStatus.READY)).containsExactly(1L);
+        assertThat(projection.getByCustomerEmail("jane@example.com"))
+                .extracting(OrderSummary::getStatus).containsExactly(OrderStatus.READY);
+    }
+
+    @Test
+    void changeCommittedDuringReloadIsNotLost() {
+        when(orderRepository.streamByStatusIn(any())).thenAnswer(invocation -> {
+            apply(order(1L, OrderStatus.PREPARING, 0));
+            return Stream.of(order(1L, OrderStatus.CONFIRMED, 0), order(2L, OrderStatus.CONFIRMED, 1));
+        });
+
+        projection.reload();
+
+        assertThat(ids(OrderStatus.PREPARING)).containsExactly(1L);
+        assertThat(ids(OrderStatus.CONFIRMED)).containsExactly(2L);
+    }
+
+    private void apply(OrderSummary order) {
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(order));
+    }
+
+    private List<Long> ids(OrderStatus status) {
+        return projection.getPageByStatus(status, OrderCursor.decode(null), 100).stream()
+                .map(OrderSummary::getOrderId)
+                .toList();
+    }
+
+    static OrderSummary order(Long orderId, OrderStatus status, int minute) {
+        LocalDateTime createdAt = NOW.plusMinutes(minute);
+        return new OrderSummary(orderId, "Jane Doe", "jane@example.com", status, new BigDecimal("12.50"),
+                createdAt, createdAt, null);
+    }
+}
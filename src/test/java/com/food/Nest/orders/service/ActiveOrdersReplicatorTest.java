@@ -0,0 +1,77 @@
+package com.food.Nest.orders.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.messaging.JacksonConfig;
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import io.awspring.cloud.sns.core.SnsTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ActiveOrdersReplicatorTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private SnsTemplate snsTemplate;
+    private ActiveOrdersReplicator replicator;
+
+    @BeforeEach
+    void setUp() {
+        snsTemplate = Mockito.mock(SnsTemplate.class);
+        replicator = replicator(snsTemplate);
+    }
+
+    @Test
+    void committedChangeReachesTheProjectionOfAnotherNode() {
+        OrderSummary order = new OrderSummary(7L, "Jane Doe", "jane@example.com", OrderStatus.PENDING,
+                new BigDecimal("12.50"), LocalDateTime.now(), LocalDateTime.now(), null);
+        replicator.onOrderStatusChanged(new OrderStatusChangedEvent(order));
+
+        ActiveOrdersProjection otherProjection = Mockito.mock(ActiveOrdersProjection.class);
+        new ActiveOrdersReplicationListener(otherProjection, replicator(Mockito.mock(SnsTemplate.class)), objectMapper)
+                .onChange(sentMessage());
+
+        verify(otherProjection).apply(order);
+    }
+
+    @Test
+    void changesBroadcastByThisNodeAreNotAppliedTwice() {
+        OrderSummary order = new OrderSummary(7L, "Jane Doe", "jane@example.com", OrderStatus.READY,
+                new BigDecimal("12.50"), LocalDateTime.now(), LocalDateTime.now(), null);
+        replicator.onOrderStatusChanged(new OrderStatusChangedEvent(order));
+
+        ActiveOrdersProjection projection = Mockito.mock(ActiveOrdersProjection.class);
+        new ActiveOrdersReplicationListener(projection, replicator, objectMapper).onChange(sentMessage());
+
+        verify(projection, never()).apply(any());
+    }
+
+    private String sentMessage() {
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(snsTemplate).convertAndSend(eq("notifications"), message.capture(),
+                eq(Map.<String, Object>of("eventType", "ACTIVE_ORDER_CHANGED")));
+        return (String) message.getValue();
+    }
+
+    private ActiveOrdersReplicator replicator(SnsTemplate snsTemplate) {
+        ActiveOrdersReplicator replicator = new ActiveOrdersReplicator(snsTemplate, Mockito.mock(SnsClient.class),
+                Mockito.mock(SqsClient.class), objectMapper, "active-orders-", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(replicator, "notificationTopic", "notifications");
+        return replicator;
+    }
+}
@@ -0,0 +1,102 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderEvent;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationCoalescerTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(200);
+
+    private final List<OrderStatus> sent = new CopyOnWriteArrayList<>();
+    private final Function<OrderEvent, CompletableFuture<Void>> sender = event -> {
+        sent.add(event.getStatus());
+        return CompletableFuture.completedFuture(null);
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new NotificationCoalescer(meterRegistry, true, WINDOW, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void burstOfUpdatesSendsOnlyTheLatestStatus() {
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<Void> confirmed = coalescer.submit(event(OrderStatus.CONFIRMED, now), sender);
+        CompletableFuture<Void> preparing = coalescer.submit(event(OrderStatus.PREPARING, now.plusSeconds(1)), sender);
+        CompletableFuture<Void> ready = coalescer.submit(event(OrderStatus.READY, now.plusSeconds(2)), sender);
+
+        assertThat(confirmed).isCompleted();
+        assertThat(preparing).isCompleted();
+        assertThat(ready).succeedsWithin(Duration.ofSeconds(5));
+        assertThat(sent).containsExactly(OrderStatus.READY);
+        assertThat(meterRegistry.counter("notifications.coalesced").count()).isEqualTo(2);
+    }
+
+    @Test
+    void terminalStatusIsSentAtOnceAndCancelsThePendingOne() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        coalescer.submit(event(OrderStatus.CONFIRMED, now), sender);
+        CompletableFuture<Void> cancelled = coalescer.submit(event(OrderStatus.CANCELLED, now.plusSeconds(1)), sender);
+
+        assertThat(cancelled).isCompleted();
+        Thread.sleep(WINDOW.multipliedBy(2).toMillis());
+        assertThat(sent).containsExactly(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void olderEventArrivingLateDoesNotReplaceNewerOne() {
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<Void> ready = coalescer.submit(event(OrderStatus.READY, now), sender);
+        coalescer.submit(event(OrderStatus.PREPARING, now.minusSeconds(1)), sender);
+
+        assertThat(ready).succeedsWithin(Duration.ofSeconds(5));
+        assertThat(sent).containsExactly(OrderStatus.READY);
+    }
+
+    @Test
+    void olderEventArrivingAfterTheTerminalOneIsDropped() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        coalescer.submit(event(OrderStatus.DELIVERED, now), sender);
+        CompletableFuture<Void> late = coalescer.submit(event(OrderStatus.READY, now.minusSeconds(30)), sender);
+
+        assertThat(late).isCompleted();
+        Thread.sleep(WINDOW.multipliedBy(2).toMillis());
+        assertThat(sent).containsExactly(OrderStatus.DELIVERED);
+        assertThat(meterRegistry.counter("notifications.stale.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void olderEventArrivingAfterAFlushedWindowIsDropped() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(coalescer.submit(event(OrderStatus.READY, now), sender)).succeedsWithin(Duration.ofSeconds(5));
+
+        assertThat(coalescer.submit(event(OrderStatus.PREPARING, now.minusSeconds(1)), sender)).isCompleted();
+        assertThat(sent).containsExactly(OrderStatus.READY);
+    }
+
+    private static OrderEvent event(OrderStatus status, LocalDateTime timestamp) {
+        return new OrderEvent(7L, status, timestamp, "jane@example.com", "Jane Doe", "ORDER_STATUS_UPDATED");
+    }
+}
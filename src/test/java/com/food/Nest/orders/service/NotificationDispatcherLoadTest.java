@@ -0,0 +1,47 @@
+package com.food.Nest.orders.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the notification path should be bounded by the per-channel
+ * concurrency, not by the number of threads calling dispatch.
+ */
+class NotificationDispatcherLoadTest {
+
+    private static final int NOTIFICATIONS = 200;
+    private static final Duration SEND_LATENCY = Duration.ofMillis(50);
+
+    @Test
+    void throughputScalesWithChannelConcurrency() {
+        long lowConcurrency = dispatchAll(5);
+        long highConcurrency = dispatchAll(50);
+
+        // 200 sends of 50 ms: ~2 s with 5 in flight, ~0.2 s with 50 in flight
+        assertThat(lowConcurrency).isGreaterThanOrEqualTo(NOTIFICATIONS / 5 * SEND_LATENCY.toMillis());
+        assertThat(highConcurrency * 4).isLessThan(lowConcurrency);
+    }
+
+    private long dispatchAll(int maxInFlight) {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(
+                List.of(new SimulatedNotificationSender(SEND_LATENCY)), new SimpleMeterRegistry(), maxInFlight);
+        try {
+            long start = System.nanoTime();
+            // A single caller thread submits everything, like one SQS listener thread would
+            CompletableFuture<?>[] sends = IntStream.range(0, NOTIFICATIONS)
+                    .mapToObj(i -> dispatcher.dispatch("customer" + i + "@example.com", "Order update " + i))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(sends).join();
+            return Duration.ofNanos(System.nanoTime() - start).toMillis();
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+}
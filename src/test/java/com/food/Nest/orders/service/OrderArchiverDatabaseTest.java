@@ -0,0 +1,179 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.orders.model.OrderItem;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.OrderRepository;
+import com.food.Nest.orders.repository.OrderRepository.StatusCount;
+import com.food.Nest.persistence.PostgresTestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the archiver's native statements against PostgreSQL and checks what ends up in
+ * the order tables, the archive tables and the archived totals per status.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiverDatabaseTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private ArchivedOrderRepository archiveRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM order_items_archive");
+        jdbc.update("DELETE FROM orders_archive");
+        jdbc.update("DELETE FROM orders_archive_status_counts");
+        jdbc.update("DELETE FROM order_items");
+        jdbc.update("DELETE FROM orders");
+        menuRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchMovesFinishedOrdersWithTheirItemsAndCountsThem() throws InterruptedException {
+        MenuItem burger = menuRepository.save(new MenuItem(null, "Burger", "Burger", new BigDecimal("4.00"),
+                "Mains", true, LocalDateTime.now(), LocalDateTime.now()));
+        Long delivered = oldOrder(OrderStatus.DELIVERED, burger, 2);
+        Long cancelled = oldOrder(OrderStatus.CANCELLED, burger, 1);
+        Long pending = oldOrder(OrderStatus.PENDING, burger, 1);
+        Long recent = orderRepository.save(order(OrderStatus.DELIVERED, burger, 1)).getOrderId();
+        archivedBeforeTotalsWereKept(OrderStatus.DELIVERED);
+
+        int moved = archiver().archive(LocalDateTime.now().minusDays(90));
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT order_id FROM orders", Long.class))
+                .containsExactlyInAnyOrder(pending, recent);
+        assertThat(jdbc.queryForList("SELECT DISTINCT order_id FROM order_items", Long.class))
+                .containsExactlyInAnyOrder(pending, recent);
+        assertThat(jdbc.queryForList("SELECT order_id FROM orders_archive", Long.class))
+                .contains(delivered, cancelled).hasSize(3);
+        assertThat(jdbc.queryForList("SELECT order_id FROM order_items_archive", Long.class))
+                .containsExactlyInAnyOrder(delivered, delivered, cancelled);
+        assertThat(archivedCounts()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                OrderStatus.DELIVERED, 2L, OrderStatus.CANCELLED, 1L));
+        assertThat(orderRepository.countGroupedByStatus().stream()
+                .collect(Collectors.toMap(StatusCount::getStatus, StatusCount::getCount)))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(
+                        OrderStatus.DELIVERED, 3L, OrderStatus.CANCELLED, 1L, OrderStatus.PENDING, 1L));
+    }
+
+    @Test
+    void customerPageSeesEachOrderOnceWhetherArchivedOrNot() throws InterruptedException {
+        MenuItem burger = menuRepository.save(new MenuItem(null, "Burger", "Burger", new BigDecimal("4.00"),
+                "Mains", true, LocalDateTime.now(), LocalDateTime.now()));
+        Long delivered = oldOrder(OrderStatus.DELIVERED, burger, 1);
+        Long recent = orderRepository.save(order(OrderStatus.PENDING, burger, 1)).getOrderId();
+        archiver().archive(LocalDateTime.now().minusDays(90));
+
+        List<OrderRepository.OrderSummaryRow> page = orderRepository.findPageByCustomerEmailIncludingArchive(
+                "jane@example.com", LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE, 10);
+
+        assertThat(page).extracting(OrderRepository.OrderSummaryRow::getOrderId).containsExactly(recent, delivered);
+    }
+
+    @Test
+    void restartedArchiverAddsToTheTotalsWithoutCountingTheArchiveAgain() throws InterruptedException {
+        MenuItem burger = menuRepository.save(new MenuItem(null, "Burger", "Burger", new BigDecimal("4.00"),
+                "Mains", true, LocalDateTime.now(), LocalDateTime.now()));
+        oldOrder(OrderStatus.DELIVERED, burger, 1);
+        archiver().archive(LocalDateTime.now().minusDays(90));
+        oldOrder(OrderStatus.DELIVERED, burger, 1);
+
+        assertThat(archiver().archive(LocalDateTime.now().minusDays(90))).isEqualTo(1);
+
+        assertThat(archivedCounts()).containsExactlyEntriesOf(Map.of(OrderStatus.DELIVERED, 2L));
+    }
+
+    private OrderArchiver archiver() {
+        return new OrderArchiver(archiveRepository, transactionManager, new SimpleMeterRegistry(),
+                true, Duration.ofDays(90), 10, Duration.ZERO, 10);
+    }
+
+    private Long oldOrder(OrderStatus status, MenuItem menuItem, int items) {
+        Long orderId = orderRepository.save(order(status, menuItem, items)).getOrderId();
+        LocalDateTime old = LocalDateTime.now().minusDays(100);
+        jdbc.update("UPDATE orders SET created_at = ?, updated_at = ? WHERE order_id = ?", old, old, orderId);
+        return orderId;
+    }
+
+    private void archivedBeforeTotalsWereKept(OrderStatus status) {
+        LocalDateTime old = LocalDateTime.now().minusDays(200);
+        jdbc.update("INSERT INTO orders_archive (order_id, customer_name, customer_email, customer_phone, " +
+                "delivery_address, status, total_amount, created_at, updated_at, archived_at) " +
+                "VALUES (-1, 'Jane Doe', 'jane@example.com', '555-0100', '1 Main Street', ?, 12.50, ?, ?, ?)",
+                status.name(), old, old, old);
+    }
+
+    private Map<OrderStatus, Long> archivedCounts() {
+        return jdbc.query("SELECT status, order_count FROM orders_archive_status_counts", rs -> {
+            Map<OrderStatus, Long> counts = new HashMap<>();
+            while (rs.next()) {
+                counts.put(OrderStatus.valueOf(rs.getString("status")), rs.getLong("order_count"));
+            }
+            return counts;
+        });
+    }
+
+    private static OrderEntity order(OrderStatus status, MenuItem menuItem, int items) {
+        OrderEntity order = new OrderEntity();
+        order.setCustomerName("Jane Doe");
+        order.setCustomerEmail("jane@example.com");
+        order.setCustomerPhone("555-0100");
+        order.setDeliveryAddress("1 Main Street");
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setMenuItem(menuItem);
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("4.00"));
+            item.calculateAndSetTotalPrice();
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,90 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.ArchivedOrderRepository.ArchiveCandidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderArchiverTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private ArchivedOrderRepository archiveRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        archiveRepository = Mockito.mock(ArchivedOrderRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void eachBatchStartsAfterTheLastOrderOfThePreviousOne() throws InterruptedException {
+        LocalDateTime first = CUTOFF.minusDays(30);
+        when(archiveRepository.lockNextArchiveBatch(anyCollection(), eq(CUTOFF), any(), anyLong(), eq(2)))
+                .thenReturn(List.of(candidate(1L, first), candidate(2L, first.plusHours(1))))
+                .thenReturn(List.of(candidate(5L, first.plusHours(2))));
+
+        int moved = archiver(2, 10).archive(CUTOFF);
+
+        assertThat(moved).isEqualTo(3);
+        verify(archiveRepository).lockNextArchiveBatch(anyCollection(), eq(CUTOFF), eq(first.plusHours(1)), eq(2L), eq(2));
+        verify(archiveRepository).copyOrders(eq(List.of(1L, 2L)), any());
+        verify(archiveRepository).countArchivedStatuses(List.of(1L, 2L));
+        verify(archiveRepository).seedArchivedStatusCounts();
+        verify(archiveRepository).deleteOrders(List.of(5L));
+        assertThat(meterRegistry.counter("orders.archived").count()).isEqualTo(3);
+    }
+
+    @Test
+    void runStopsAfterMaxBatchesPerRun() throws InterruptedException {
+        when(archiveRepository.lockNextArchiveBatch(anyCollection(), any(), any(), anyLong(), anyInt()))
+                .thenReturn(List.of(candidate(1L, CUTOFF.minusDays(10))))
+                .thenReturn(List.of(candidate(2L, CUTOFF.minusDays(9))))
+                .thenReturn(List.of(candidate(3L, CUTOFF.minusDays(8))));
+
+        int moved = archiver(1, 2).archive(CUTOFF);
+
+        assertThat(moved).isEqualTo(2);
+        verify(archiveRepository, never()).copyOrders(eq(List.of(3L)), any());
+    }
+
+    private OrderArchiver archiver(int batchSize, int maxBatchesPerRun) {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new OrderArchiver(archiveRepository, transactionManager, meterRegistry,
+                true, Duration.ofDays(90), batchSize, Duration.ZERO, maxBatchesPerRun);
+    }
+
+    private static ArchiveCandidate candidate(Long orderId, LocalDateTime createdAt) {
+        return new ArchiveCandidate() {
+            @Override
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
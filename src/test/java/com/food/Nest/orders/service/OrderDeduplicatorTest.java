@@ -0,0 +1,68 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.repository.OrderIdempotencyKeyRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderDeduplicatorTest {
+
+    private OrderIdempotencyKeyRepository keyRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        keyRepository = Mockito.mock(OrderIdempotencyKeyRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new OrderDeduplicator(keyRepository, new ReplicaRouting(), meterRegistry, 100, Duration.ofDays(1));
+    }
+
+    @Test
+    void recordedKeysAreAnsweredFromMemory() {
+        OrderEntity order = new OrderEntity();
+        order.setOrderId(1L);
+        order.setIdempotencyKey("key-1");
+
+        deduplicator.recordCreated(List.of(order));
+
+        assertThat(deduplicator.isDuplicate("key-1")).isTrue();
+        verify(keyRepository).saveAll(anyIterable());
+        verify(keyRepository, never()).existsById("key-1");
+    }
+
+    @Test
+    void unknownKeysAreCheckedAgainstTheDatabase() {
+        when(keyRepository.existsById("stored")).thenReturn(true);
+
+        assertThat(deduplicator.isDuplicate("stored")).isTrue();
+        assertThat(deduplicator.isDuplicate("stored")).isTrue();
+        assertThat(deduplicator.isDuplicate("fresh")).isFalse();
+
+        verify(keyRepository, Mockito.times(1)).existsById("stored");
+        assertThat(meterRegistry.counter("orders.dedupe.checks", "result", "duplicate").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("orders.dedupe.checks", "result", "new").count()).isEqualTo(1);
+    }
+
+    @Test
+    void ordersWithoutKeyAreNeverDuplicates() {
+        assertThat(deduplicator.isDuplicate(null)).isFalse();
+
+        OrderEntity order = new OrderEntity();
+        deduplicator.recordCreated(List.of(order));
+
+        verify(keyRepository, never()).saveAll(anyIterable());
+    }
+}
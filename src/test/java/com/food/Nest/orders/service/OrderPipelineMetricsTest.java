@@ -0,0 +1,51 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.OrderEvent;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPipelineMetricsTest {
+
+    private final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    private final OrderPipelineMetrics metrics = new OrderPipelineMetrics(meterRegistry);
+
+    @Test
+    void queueWaitIsMeasuredFromTheSentTimestamp() {
+        metrics.recordQueueWait("food-order-queue", Long.toString(System.currentTimeMillis() - 2_000));
+        metrics.recordQueueWait("food-order-queue", "not-a-timestamp");
+
+        var timer = meterRegistry.get("orders.pipeline.queue.wait").tag("queue", "food-order-queue").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isBetween(2_000.0, 10_000.0);
+    }
+
+    @Test
+    void notificationLatencyIsTaggedByStatusAndExportedAsHistogram() {
+        OrderEvent orderEvent = new OrderEvent(1L, OrderStatus.READY, LocalDateTime.now().minusSeconds(3),
+                "jane@example.com", "Jane Doe", "ORDER_STATUS_UPDATED");
+
+        metrics.recordNotification(orderEvent, "sent");
+
+        assertThat(meterRegistry.get("orders.pipeline.notification")
+                .tags("status", "READY", "outcome", "sent").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.scrape())
+                .contains("orders_pipeline_notification_seconds_bucket{outcome=\"sent\",status=\"READY\",le=");
+    }
+
+    @Test
+    void samplesWithTheSameTagsShareOneTimer() {
+        metrics.recordAccept(System.nanoTime(), "accepted");
+        metrics.recordAccept(System.nanoTime(), "accepted");
+        metrics.recordAccept(System.nanoTime(), "rejected");
+
+        assertThat(meterRegistry.get("orders.pipeline.accept").timers()).hasSize(2);
+        assertThat(meterRegistry.get("orders.pipeline.accept").tag("outcome", "accepted").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,238 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.menu.model.MenuItem;
+import com.food.Nest.menu.repository.MenuRepository;
+import com.food.Nest.menu.service.MenuCache;
+import com.food.Nest.messaging.JacksonConfig;
+import com.food.Nest.messaging.MessageCodec;
+import com.food.Nest.messaging.MessageFormat;
+import com.food.Nest.orders.model.OrderItemRequest;
+import com.food.Nest.orders.model.OrderPage;
+import com.food.Nest.orders.model.OrderRequest;
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderStatusUpdate;
+import com.food.Nest.orders.model.OrderStatusUpdateResult;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderEntity;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.ArchivedOrderRepository;
+import com.food.Nest.orders.repository.OrderIdempotencyKeyRepository;
+import com.food.Nest.orders.repository.OrderRepository;
+import com.food.Nest.orders.repository.OutboxEventRepository;
+import com.food.Nest.persistence.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+
+    private OrderRepository orderRepository;
+    private MenuRepository menuRepository;
+    private OutboxEventRepository outboxRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private ActiveOrdersProjection activeOrders;
+    private ArchivedOrderRepository archiveRepository;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = Mockito.mock(OrderRepository.class);
+        menuRepository = Mockito.mock(MenuRepository.class);
+        MenuCache menuCache = new MenuCache(menuRepository, new ReplicaRouting(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        outboxRepository = Mockito.mock(OutboxEventRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        activeOrders = Mockito.mock(ActiveOrdersProjection.class);
+        archiveRepository = Mockito.mock(ArchivedOrderRepository.class);
+        orderService = new OrderService(orderRepository, menuCache, outboxRepository, new MessageCodec(new JacksonConfig().objectMapper(), MessageFormat.JSON),
+                new OrderStatisticsTracker(orderRepository),
+                new OrderDeduplicator(Mockito.mock(OrderIdempotencyKeyRepository.class), new ReplicaRouting(), new SimpleMeterRegistry(),
+                        100, Duration.ofDays(1)),
+                eventPublisher,
+                activeOrders,
+                new OrderReadConsistency(new ReplicaRouting(), false, Duration.ofSeconds(15)),
+                archiveRepository);
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void createOrderResolvesAllMenuItemsInOneLookup() {
+        when(menuRepository.findAllById(anyIterable())).thenReturn(List.of(
+                menuItem(1L, "Burger", "8.50", true),
+                menuItem(2L, "Fries", "3.00", true)));
+
+        OrderEntity order = orderService.createOrder(orderRequest(
+                item(1L, 2), item(2L, 1), item(1L, 1)));
+
+        verify(menuRepository, times(1)).findAllById(anyIterable());
+        verify(menuRepository, never()).findById(any());
+        assertThat(order.getOrderItems()).hasSize(3);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("28.50");
+    }
+
+    @Test
+    void createOrderReportsEveryInvalidItem() {
+        when(menuRepository.findAllById(anyIterable())).thenReturn(List.of(
+                menuItem(1L, "Burger", "8.50", true),
+                menuItem(2L, "Soup", "4.00", false)));
+
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest(
+                item(1L, 1), item(2L, 1), item(3L, 1))))
+                .hasMessageContaining("Menu item is not available: Soup")
+                .hasMessageContaining("Menu item not found: 3");
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void transitionThatDidNotApplyIsReportedAsConflict() {
+        when(orderRepository.transitionStatuses(eq(List.of(5L)), eq("READY"), eq(List.of("PREPARING")), any(), any()))
+                .thenReturn(List.of());
+        when(orderRepository.findStatusByOrderId(5L)).thenReturn(Optional.of(OrderStatus.DELIVERED));
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(5L, OrderStatus.READY))
+                .isInstanceOf(OrderStatusConflictException.class)
+                .hasMessage("Order 5 cannot move from DELIVERED to READY");
+    }
+
+    @Test
+    void statusWithoutPredecessorsIsRejectedWithoutUpdating() {
+        when(orderRepository.findStatusByOrderId(5L)).thenReturn(Optional.of(OrderStatus.CONFIRMED));
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(5L, OrderStatus.PENDING))
+                .isInstanceOf(OrderStatusConflictException.class);
+        verify(orderRepository, never()).transitionStatuses(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void bulkUpdateReportsEachOrderSeparately() {
+        OrderRepository.StatusTransition applied = transition(1L, OrderStatus.PREPARING, OrderStatus.READY);
+        OrderRepository.OrderStatusView delivered = statusView(2L, OrderStatus.DELIVERED);
+        when(orderRepository.transitionStatuses(eq(List.of(1L, 2L)), eq("READY"), eq(List.of("PREPARING")), any(), any()))
+                .thenReturn(List.of(applied));
+        when(orderRepository.findStatusesByOrderIdIn(List.of(2L, 3L))).thenReturn(List.of(delivered));
+
+        List<OrderStatusUpdateResult> results = orderService.updateOrderStatuses(List.of(
+                new OrderStatusUpdate(1L, OrderStatus.READY),
+                new OrderStatusUpdate(2L, OrderStatus.READY),
+                new OrderStatusUpdate(3L, OrderStatus.CANCELLED),
+                new OrderStatusUpdate(1L, OrderStatus.OUT_FOR_DELIVERY)));
+
+        assertThat(results).extracting(OrderStatusUpdateResult::getOutcome).containsExactly(
+                OrderStatusUpdateResult.Outcome.UPDATED,
+                OrderStatusUpdateResult.Outcome.CONFLICT,
+                OrderStatusUpdateResult.Outcome.NOT_FOUND,
+                OrderStatusUpdateResult.Outcome.REJECTED);
+        assertThat(results.get(0).getOrder().getStatus()).isEqualTo(OrderStatus.READY);
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).lockByOrderIdIn(Set.of(1L, 2L, 3L));
+        inOrder.verify(orderRepository).transitionStatuses(any(), eq("READY"), any(), any(), any());
+        verify(outboxRepository).saveAll(argThat(events -> events.iterator().hasNext()
+                && events.iterator().next().getOrderVersion().equals(1L)));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OrderStatusChangedEvent changed
+                && changed.getOrder().getOrderId().equals(1L)));
+    }
+
+    @Test
+    void bulkUpdateToOneStatusDoesNotLockSeparately() {
+        orderService.updateOrderStatuses(List.of(
+                new OrderStatusUpdate(2L, OrderStatus.READY),
+                new OrderStatusUpdate(1L, OrderStatus.READY)));
+
+        verify(orderRepository, never()).lockByOrderIdIn(any());
+    }
+
+    @Test
+    void customerHistoryReadsTheOrdersAndTheArchiveInOneStatement() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderRepository.OrderSummaryRow> rows = List.of(row(9L, now), row(7L, now.minusDays(95)),
+                row(5L, now.minusDays(100)), row(3L, now.minusDays(120)));
+        when(orderRepository.findPageByCustomerEmailIncludingArchive(eq("jane@example.com"), any(), any(), eq(4)))
+                .thenReturn(rows);
+
+        OrderPage<OrderSummary> page = orderService.getOrdersByCustomerEmail("jane@example.com", null, 3);
+
+        assertThat(page.getOrders()).extracting(OrderSummary::getOrderId).containsExactly(9L, 7L, 5L);
+        assertThat(page.getNextCursor()).isNotNull();
+        verifyNoInteractions(archiveRepository);
+    }
+
+    @Test
+    void orderMissingFromTheHotTableIsLookedUpInTheArchive() {
+        when(orderRepository.findWithItemsByOrderId(42L)).thenReturn(Optional.empty());
+        when(archiveRepository.findWithItemsByOrderId(42L)).thenReturn(Optional.empty());
+
+        assertThat(orderService.getOrder(42L)).isEmpty();
+        verify(archiveRepository).findWithItemsByOrderId(42L);
+    }
+
+    static OrderRepository.OrderSummaryRow row(Long orderId, LocalDateTime createdAt) {
+        OrderRepository.OrderSummaryRow row = Mockito.mock(OrderRepository.OrderSummaryRow.class);
+        when(row.getOrderId()).thenReturn(orderId);
+        when(row.getCustomerEmail()).thenReturn("jane@example.com");
+        when(row.getStatus()).thenReturn(OrderStatus.DELIVERED);
+        when(row.getCreatedAt()).thenReturn(createdAt);
+        return row;
+    }
+
+    static OrderRepository.StatusTransition transition(Long orderId, OrderStatus from, OrderStatus to) {
+        OrderRepository.StatusTransition transition = Mockito.mock(OrderRepository.StatusTransition.class);
+        when(transition.getOrderId()).thenReturn(orderId);
+        when(transition.getPreviousStatus()).thenReturn(from);
+        when(transition.getStatus()).thenReturn(to);
+        when(transition.getCustomerEmail()).thenReturn("jane@example.com");
+        when(transition.getCustomerName()).thenReturn("Jane Doe");
+        when(transition.getVersion()).thenReturn(1L);
+        return transition;
+    }
+
+    static OrderRepository.OrderStatusView statusView(Long orderId, OrderStatus status) {
+        OrderRepository.OrderStatusView view = Mockito.mock(OrderRepository.OrderStatusView.class);
+        when(view.getOrderId()).thenReturn(orderId);
+        when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+
+    static MenuItem menuItem(Long id, String name, String price, boolean available) {
+        return new MenuItem(id, name, name + " description", new BigDecimal(price), "Mains",
+                available, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    static OrderItemRequest item(Long menuItemId, int quantity) {
+        OrderItemRequest itemRequest = new OrderItemRequest();
+        itemRequest.setMenuItemId(menuItemId);
+        itemRequest.setQuantity(quantity);
+        return itemRequest;
+    }
+
+    static OrderRequest orderRequest(OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Jane Doe");
+        request.setCustomerEmail("jane@example.com");
+        request.setCustomerPhone("555-0100");
+        request.setDeliveryAddress("1 Main Street");
+        request.setOrderItems(List.of(items));
+        return request;
+    }
+}
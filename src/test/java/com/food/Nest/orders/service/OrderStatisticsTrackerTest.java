@@ -0,0 +1,95 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OrderStatus;
+import com.food.Nest.orders.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderStatisticsTrackerTest {
+
+    private OrderRepository orderRepository;
+    private OrderStatisticsTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = Mockito.mock(OrderRepository.class);
+        tracker = new OrderStatisticsTracker(orderRepository);
+    }
+
+    @Test
+    void countsFollowCommittedChangesAfterLoading() {
+        when(orderRepository.countGroupedByStatus()).thenReturn(List.of(
+                count(OrderStatus.PENDING, 3), count(OrderStatus.DELIVERED, 5)));
+
+        assertThat(tracker.getCount(OrderStatus.PENDING)).isEqualTo(3);
+        tracker.recordCreated();
+        tracker.recordTransition(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
+        assertThat(tracker.getCount(OrderStatus.PENDING)).isEqualTo(3);
+        assertThat(tracker.getCount(OrderStatus.CONFIRMED)).isEqualTo(1);
+        assertThat(tracker.getCount(OrderStatus.DELIVERED)).isEqualTo(5);
+        verify(orderRepository, times(1)).countGroupedByStatus();
+    }
+
+    @Test
+    void changesCommittedWhileTheReconcileQueryRunsAreKept() {
+        tracker.reconcile();
+        when(orderRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            // Committed after the query's snapshot, so not part of its result
+            tracker.recordTransition(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+            return List.of(count(OrderStatus.PENDING, 2));
+        });
+
+        tracker.reconcile();
+
+        assertThat(tracker.getCount(OrderStatus.PENDING)).isEqualTo(1);
+        assertThat(tracker.getCount(OrderStatus.CONFIRMED)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentFirstReadsLoadOnce() throws InterruptedException {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return List.of(count(OrderStatus.READY, 4));
+        });
+
+        Thread first = Thread.ofVirtual().start(() -> tracker.getCount(OrderStatus.READY));
+        querying.await();
+        Thread second = Thread.ofVirtual().start(() -> tracker.getCount(OrderStatus.READY));
+        while (second.getState() != Thread.State.WAITING && second.getState() != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertThat(tracker.getCount(OrderStatus.READY)).isEqualTo(4);
+        verify(orderRepository, times(1)).countGroupedByStatus();
+    }
+
+    private static OrderRepository.StatusCount count(OrderStatus status, long count) {
+        return new OrderRepository.StatusCount() {
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
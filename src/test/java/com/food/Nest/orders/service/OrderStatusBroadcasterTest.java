@@ -0,0 +1,168 @@
+package com.food.Nest.orders.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.Nest.messaging.JacksonConfig;
+import com.food.Nest.messaging.OrderAdmissionGate;
+import com.food.Nest.messaging.OrderMessageProducer;
+import com.food.Nest.orders.controller.OrderController;
+import com.food.Nest.orders.model.OrderStatusChangedEvent;
+import com.food.Nest.orders.model.OrderSummary;
+import com.food.Nest.orders.model.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderStatusBroadcasterTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusBroadcaster broadcaster;
+    private OrderService orderService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new OrderStatusBroadcaster(objectMapper, meterRegistry, Duration.ofMinutes(1), 4);
+        orderService = Mockito.mock(OrderService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(
+                Mockito.mock(OrderMessageProducer.class), Mockito.mock(OrderAdmissionGate.class),
+                orderService, new OrderPipelineMetrics(meterRegistry), broadcaster, objectMapper)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void orderStreamStartsWithCurrentStateAndReceivesOnlyItsOwnChanges() throws Exception {
+        when(orderService.getOrderSummary(1L)).thenReturn(Optional.of(order(1L, "jane@example.com", OrderStatus.CONFIRMED)));
+        MockHttpServletResponse response = mockMvc.perform(get("/api/orders/1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(2L, "jane@example.com", OrderStatus.READY)));
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, "jane@example.com", OrderStatus.PREPARING)));
+
+        String body = awaitEvents(response, 2);
+        assertThat(body).contains("\"status\":\"CONFIRMED\"").contains("\"status\":\"PREPARING\"")
+                .doesNotContain("\"orderId\":2");
+        assertThat(meterRegistry.get("orders.live.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectWithLastEventIdReplaysMissedChanges() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/api/orders/customer/jane@example.com/events"))
+                .andReturn().getResponse();
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, "jane@example.com", OrderStatus.CONFIRMED)));
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(3L, "sam@example.com", OrderStatus.CONFIRMED)));
+        broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, "jane@example.com", OrderStatus.PREPARING)));
+        List<String> ids = eventIds(awaitEvents(first, 2));
+
+        String replayed = mockMvc.perform(get("/api/orders/customer/jane@example.com/events")
+                        .header("Last-Event-ID", ids.get(0)))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(eventIds(replayed)).containsExactly(ids.get(1));
+        assertThat(replayed).contains("\"status\":\"PREPARING\"").doesNotContain("sam@example.com");
+    }
+
+    @Test
+    void evictedLastEventIdFallsBackToCurrentState() throws Exception {
+        when(orderService.getOrderSummary(1L)).thenReturn(Optional.of(order(1L, "jane@example.com", OrderStatus.READY)));
+        for (int i = 0; i < 6; i++) {
+            broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, "jane@example.com", OrderStatus.PREPARING)));
+        }
+
+        String body = mockMvc.perform(get("/api/orders/1/events").header("Last-Event-ID", "1"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(eventIds(body)).isEmpty();
+        assertThat(body).contains("\"status\":\"READY\"").doesNotContain("PREPARING");
+    }
+
+    @Test
+    void changeCommittedWhileLoadingTheCurrentStateIsDeliveredAfterIt() throws Exception {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        when(orderService.getOrderSummary(1L)).thenAnswer(invocation -> {
+            // One change the loaded state already reflects, one committed right after the read
+            broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, OrderStatus.CONFIRMED, loadedAt)));
+            broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, OrderStatus.PREPARING, loadedAt.plusSeconds(1))));
+            return Optional.of(order(1L, OrderStatus.CONFIRMED, loadedAt));
+        });
+        MockHttpServletResponse response = mockMvc.perform(get("/api/orders/1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        String body = awaitEvents(response, 2);
+        assertThat(body.split("\"status\":\"CONFIRMED\"", -1)).hasSize(2);
+        assertThat(body.indexOf("PREPARING")).isGreaterThan(body.indexOf("CONFIRMED"));
+    }
+
+    @Test
+    void eachSubscriberReceivesEventsInIdOrder() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/orders/customer/jane@example.com/events"))
+                .andReturn().getResponse();
+        for (int i = 0; i < 200; i++) {
+            broadcaster.onOrderStatusChanged(new OrderStatusChangedEvent(order(1L, "jane@example.com", OrderStatus.PREPARING)));
+        }
+
+        List<Long> ids = eventIds(awaitEvents(response, 200)).stream().map(Long::valueOf).toList();
+        assertThat(ids).hasSize(200).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void unknownOrderIsNotSubscribed() throws Exception {
+        when(orderService.getOrderSummary(9L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/orders/9/events")).andExpect(status().isNotFound());
+        assertThat(meterRegistry.get("orders.live.subscribers").gauge().value()).isZero();
+    }
+
+    private static String awaitEvents(MockHttpServletResponse response, int count) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String body = response.getContentAsString();
+        while (body.split("event:order-status", -1).length - 1 < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = response.getContentAsString();
+        }
+        return body;
+    }
+
+    private static List<String> eventIds(String body) {
+        Matcher matcher = EVENT_ID.matcher(body);
+        return matcher.results().map(result -> result.group(1)).toList();
+    }
+
+    static OrderSummary order(Long orderId, String customerEmail, OrderStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return new OrderSummary(orderId, "Jane Doe", customerEmail, status, new BigDecimal("12.50"), now, now, null);
+    }
+
+    private static OrderSummary order(Long orderId, OrderStatus status, LocalDateTime updatedAt) {
+        return new OrderSummary(orderId, "Jane Doe", "jane@example.com", status, new BigDecimal("12.50"),
+                updatedAt.minusMinutes(5), updatedAt, null);
+    }
+}
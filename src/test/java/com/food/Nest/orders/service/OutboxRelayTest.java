@@ -0,0 +1,100 @@
+package com.food.Nest.orders.service;
+
+import com.food.Nest.orders.model.entity.OutboxDeadLetterEntity;
+import com.food.Nest.orders.model.entity.OutboxEventEntity;
+import com.food.Nest.orders.repository.OutboxDeadLetterRepository;
+import com.food.Nest.orders.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxRepository;
+    private OutboxDeadLetterRepository deadLetterRepository;
+    private SqsAsyncClient sqsAsyncClient;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxRepository = Mockito.mock(OutboxEventRepository.class);
+        deadLetterRepository = Mockito.mock(OutboxDeadLetterRepository.class);
+        sqsAsyncClient = Mockito.mock(SqsAsyncClient.class);
+        when(sqsAsyncClient.getQueueUrl(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(
+                GetQueueUrlResponse.builder().queueUrl("http://localhost:4566/000000000000/order-notification-queue").build()));
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+
+        relay = new OutboxRelay(outboxRepository, deadLetterRepository, sqsAsyncClient, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(relay, "notificationQueue", "order-notification-queue");
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "retryBackoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+    }
+
+    @Test
+    void eventRejectedOnItsLastAttemptMovesToTheDeadLetterTable() {
+        OutboxEventEntity rejected = event(1L, 10L, 2);
+        OutboxEventEntity retried = event(2L, 20L, 0);
+        OutboxEventEntity sent = event(3L, 30L, 0);
+        when(outboxRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of(rejected, retried, sent));
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(SendMessageBatchResponse.builder()
+                        .successful(SendMessageBatchResultEntry.builder().id("3").messageId("m-3").build())
+                        .failed(BatchResultErrorEntry.builder().id("1").code("InvalidParameterValue")
+                                        .message("Message too long").senderFault(true).build(),
+                                BatchResultErrorEntry.builder().id("2").code("InternalError").senderFault(false).build())
+                        .build()));
+
+        relay.relay();
+
+        ArgumentCaptor<OutboxDeadLetterEntity> deadLetter = ArgumentCaptor.forClass(OutboxDeadLetterEntity.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getId()).isEqualTo(1L);
+        assertThat(deadLetter.getValue().getAttempts()).isEqualTo(3);
+        assertThat(deadLetter.getValue().getLastError()).isEqualTo("InvalidParameterValue: Message too long");
+        verify(outboxRepository).deleteAllInBatch(List.of(sent));
+        verify(outboxRepository).deleteAllInBatch(List.of(rejected));
+        verify(outboxRepository, never()).deleteAllInBatch(List.of(retried));
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(meterRegistry.counter("outbox.events.dead.lettered").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("outbox.publish.lag").count()).isEqualTo(1);
+    }
+
+    private static OutboxEventEntity event(Long id, Long orderId, int attempts) {
+        OutboxEventEntity event = new OutboxEventEntity(orderId, 1L, "ORDER_STATUS_UPDATED",
+                "{\"orderId\":" + orderId + "}", "application/json");
+        event.setId(id);
+        event.setAttempts(attempts);
+        event.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+        event.setNextAttemptAt(event.getCreatedAt());
+        return event;
+    }
+}
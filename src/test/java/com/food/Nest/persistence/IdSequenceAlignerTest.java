@@ -0,0 +1,66 @@
+package com.food.Nest.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSequenceAlignerTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // One connection, so the tables below are the ones the aligner sees on its search path
+        dataSource = new SingleConnectionDataSource(PostgresTestDatabase.dataSource().getConnection(), true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP SCHEMA IF EXISTS sequence_test CASCADE");
+        jdbc.execute("CREATE SCHEMA sequence_test");
+        jdbc.execute("SET search_path TO sequence_test");
+        jdbc.execute("CREATE TABLE orders (order_id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50");
+        jdbc.execute("CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP SCHEMA sequence_test CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void sequencesMovePastIdsLeftByIdentityColumns() {
+        jdbc.execute("INSERT INTO orders SELECT generate_series(1, 120)");
+        jdbc.execute("INSERT INTO order_items SELECT generate_series(1, 7)");
+
+        new IdSequenceAligner(dataSource).align();
+
+        assertThat(nextBlockStart("orders_seq")).isEqualTo(121L);
+        assertThat(nextBlockStart("order_items_seq")).isEqualTo(8L);
+    }
+
+    @Test
+    void sequencesAheadOfTheirTablesAreLeftAlone() {
+        jdbc.execute("INSERT INTO orders VALUES (3)");
+        jdbc.execute("SELECT setval('orders_seq', 500)");
+
+        new IdSequenceAligner(dataSource).align();
+
+        assertThat(nextBlockStart("orders_seq")).isEqualTo(501L);
+        assertThat(nextBlockStart("order_items_seq")).isEqualTo(1L);
+    }
+
+    // First id of the next block the pooled optimizer takes from the sequence
+    private long nextBlockStart(String sequence) {
+        Boolean called = jdbc.queryForObject("SELECT is_called FROM " + sequence, Boolean.class);
+        long next = jdbc.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+        return Boolean.TRUE.equals(called) ? next - 49 : next;
+    }
+}
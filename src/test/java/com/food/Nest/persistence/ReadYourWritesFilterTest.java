@@ -0,0 +1,51 @@
+package com.food.Nest.persistence;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private final ReplicaRouting routing = new ReplicaRouting();
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(routing, Duration.ofSeconds(45));
+
+    @Test
+    void writeMarksTheClientForTheWindow() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"), response, (request, ignored) -> { });
+
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(ReadYourWritesFilter.COOKIE_NAME + "=")
+                .contains("Max-Age=45").contains("HttpOnly");
+    }
+
+    @Test
+    void readsOfAMarkedClientGoToThePrimaryOnAnyNode() throws Exception {
+        assertThat(primaryRequiredDuring(get(System.currentTimeMillis() + 30_000))).isTrue();
+        assertThat(primaryRequiredDuring(get(System.currentTimeMillis() - 1))).isFalse();
+        assertThat(primaryRequiredDuring(new MockHttpServletRequest("GET", "/api/orders/1"))).isFalse();
+        assertThat(routing.isPrimaryRequired()).isFalse();
+    }
+
+    private boolean primaryRequiredDuring(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> primaryRequired.set(routing.isPrimaryRequired()));
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+        return primaryRequired.get();
+    }
+
+    private static MockHttpServletRequest get(long primaryUntil) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(primaryUntil)));
+        return request;
+    }
+}
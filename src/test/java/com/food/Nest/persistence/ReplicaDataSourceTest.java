@@ -0,0 +1,115 @@
+package com.food.Nest.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaDataSourceTest {
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaRouting routing;
+    private ReplicaDataSource replicaDataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primary = embedded("primary");
+        JdbcDataSource replica = embedded("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        for (JdbcTemplate database : new JdbcTemplate[]{primaryJdbc, replicaJdbc}) {
+            database.execute("CREATE TABLE origin (name VARCHAR(20))");
+            database.execute("CREATE TABLE replication_lag (seconds DOUBLE)");
+            database.execute("INSERT INTO replication_lag VALUES (0)");
+        }
+        primaryJdbc.update("INSERT INTO origin VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO origin VALUES ('replica')");
+
+        routing = new ReplicaRouting();
+        replicaDataSource = new ReplicaDataSource(primary, Map.of("replica-1", replica), routing,
+                new SimpleMeterRegistry(), Duration.ofSeconds(5), "SELECT seconds FROM replication_lag");
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaDataSource);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaOnceItsLagIsKnown() {
+        assertThat(originIn(readOnly)).isEqualTo("primary");
+
+        replicaDataSource.checkLag();
+
+        assertThat(originIn(readOnly)).isEqualTo("replica");
+        assertThat(originIn(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaFurtherBehindThanMaxLagIsSkippedUntilItCatchesUp() {
+        replicaJdbc.update("UPDATE replication_lag SET seconds = 30");
+        replicaDataSource.checkLag();
+        assertThat(originIn(readOnly)).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replication_lag SET seconds = 1");
+        replicaDataSource.checkLag();
+        assertThat(originIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsThatMustSeeTheirOwnWritesStayOnThePrimary() {
+        replicaDataSource.checkLag();
+
+        String origin = readOnly.execute(status -> routing.onPrimary(this::origin));
+
+        assertThat(origin).isEqualTo("primary");
+        assertThat(routing.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    void connectionsWithExplicitCredentialsComeFromThePrimary() throws Exception {
+        replicaDataSource.checkLag();
+
+        String origin = readOnly.execute(status -> {
+            try (var connection = replicaDataSource.getConnection("", "");
+                 var result = connection.createStatement().executeQuery("SELECT name FROM origin")) {
+                result.next();
+                return result.getString(1);
+            } catch (java.sql.SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(origin).isEqualTo("primary");
+    }
+
+    private String originIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> origin());
+    }
+
+    private String origin() {
+        return jdbc.queryForObject("SELECT name FROM origin", String.class);
+    }
+
+    private static JdbcDataSource embedded(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}